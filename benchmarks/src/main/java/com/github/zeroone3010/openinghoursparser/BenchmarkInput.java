@@ -0,0 +1,65 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The parser and the inputs of one benchmark trial. Each invocation takes the next input of the corpus in turn.
+ */
+@State(Scope.Thread)
+public class BenchmarkInput {
+  @Param({"SHORT", "LONG", "INVALID"})
+  public Corpus corpus;
+
+  /**
+   * A language tag, or "mixed" for a parser of all the other languages and inputs in each of them in turn.
+   */
+  @Param({"en", "fi", "sv", "de", "fr", "mixed"})
+  public String language;
+
+  OpeningHours openingHours;
+  String[] inputs;
+  List<Token>[] tokens;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    load(corpus, language);
+  }
+
+  @SuppressWarnings("unchecked")
+  final void load(final Corpus corpus, final String language) {
+    final List<Locale> locales = language.equals("mixed")
+        ? Arrays.asList(Locale.ENGLISH, Locale.forLanguageTag("fi"), Locale.forLanguageTag("sv"), Locale.GERMAN,
+            Locale.FRENCH)
+        : Collections.singletonList(Locale.forLanguageTag(language));
+    openingHours = new OpeningHours(Grammars.defaultGrammar(), locales);
+    final List<List<String>> perLocale = new ArrayList<>();
+    locales.forEach(locale -> perLocale.add(corpus.inputs(locale)));
+    final List<String> interleaved = new ArrayList<>();
+    for (int i = 0; i < perLocale.get(0).size(); i++) {
+      for (final List<String> localeInputs : perLocale) {
+        interleaved.add(localeInputs.get(i));
+      }
+    }
+    inputs = interleaved.toArray(new String[0]);
+    tokens = new List[inputs.length];
+    for (int i = 0; i < inputs.length; i++) {
+      tokens[i] = openingHours.tokenize(inputs[i]);
+    }
+  }
+
+  final int next() {
+    final int current = next;
+    next = current + 1 == inputs.length ? 0 : current + 1;
+    return current;
+  }
+}
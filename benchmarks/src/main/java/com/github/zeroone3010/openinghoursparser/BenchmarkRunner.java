@@ -0,0 +1,26 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that each result comes with its allocation rate.
+ * Accepts the usual JMH command line options, e.g. {@code -p language=fi} or a benchmark name pattern.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() {
+    // prevent instantiation
+  }
+
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    new Runner(new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilation is only defined for valid tokens, so this benchmark leaves out the {@link Corpus#INVALID} corpus.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompileBenchmark {
+  @State(Scope.Thread)
+  public static class ValidInput {
+    @Param({"SHORT", "LONG"})
+    public Corpus corpus;
+
+    @Param({"en", "fi", "sv", "de"})
+    public String language;
+
+    final BenchmarkInput input = new BenchmarkInput();
+
+    @Setup
+    public void setUp() {
+      input.load(corpus, language);
+    }
+  }
+
+  @Benchmark
+  public WeeklySchedule compile(final ValidInput validInput) {
+    final BenchmarkInput input = validInput.input;
+    return input.openingHours.compile(input.tokens[input.next()]);
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Inputs for the benchmarks, written with the day names of a given locale.
+ */
+public enum Corpus {
+  /**
+   * One or two schedules, the most common shape of real world input.
+   */
+  SHORT {
+    @Override
+    List<String> inputs(final Names d) {
+      return Arrays.asList(
+          d.mon + " 10:00-18:00",
+          d.mon + "-" + d.fri + " 08:00-20:00",
+          d.mon + "-" + d.fri + " 08:00-20:00, " + d.sat + "-" + d.sun + " 10:00-18:00",
+          d.tue + " - " + d.sat + " 09:30-17:30");
+    }
+  },
+
+  /**
+   * Many schedules in one input, one per day of week and then some.
+   */
+  LONG {
+    @Override
+    List<String> inputs(final Names d) {
+      final String week = d.mon + " 07:00-15:00, " + d.tue + " 08:00-16:00, " + d.wed + " 09:00-17:00, "
+          + d.thu + " 10:00-18:00, " + d.fri + " 11:00-19:00, " + d.sat + " 12:00-20:00, " + d.sun + " 13:00-21:00";
+      final String ranges = d.mon + "-" + d.wed + " 08:00-16:00, " + d.thu + "-" + d.fri + " 09:00-21:00, "
+          + d.sat + "-" + d.sun + " 10:00-14:00";
+      return Arrays.asList(week, ranges, week + ", " + ranges + ", " + week, ranges + ", " + week + ", " + ranges);
+    }
+  },
+
+  /**
+   * Input that fails validation, either because of unknown words or because of bad structure.
+   */
+  INVALID {
+    @Override
+    List<String> inputs(final Names d) {
+      return Arrays.asList(
+          d.mon + "-" + d.sun + " 10:00-19:00 (except on holidays)",
+          d.mon + " 10:00 - " + d.tue,
+          d.mon + "-" + d.tue + " 10:00-12:00, " + d.wed + " - " + d.fri + " 08:00-",
+          "Closed for renovation");
+    }
+  };
+
+  abstract List<String> inputs(Names names);
+
+  /**
+   * @return The inputs of this corpus, with day names in the language of the given locale.
+   */
+  public List<String> inputs(final Locale locale) {
+    return new ArrayList<>(inputs(new Names(locale)));
+  }
+
+  static final class Names {
+    final String mon;
+    final String tue;
+    final String wed;
+    final String thu;
+    final String fri;
+    final String sat;
+    final String sun;
+
+    Names(final Locale locale) {
+      final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE", locale);
+      this.mon = formatter.format(DayOfWeek.MONDAY);
+      this.tue = formatter.format(DayOfWeek.TUESDAY);
+      this.wed = formatter.format(DayOfWeek.WEDNESDAY);
+      this.thu = formatter.format(DayOfWeek.THURSDAY);
+      this.fri = formatter.format(DayOfWeek.FRIDAY);
+      this.sat = formatter.format(DayOfWeek.SATURDAY);
+      this.sun = formatter.format(DayOfWeek.SUNDAY);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats the schedules of the valid corpora into one reused builder, so that only the formatting itself is measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+  @State(Scope.Thread)
+  public static class Schedules {
+    @Param({"SHORT", "LONG"})
+    public Corpus corpus;
+
+    @Param({"en", "fi", "sv", "de"})
+    public String language;
+
+    ScheduleFormatter formatter;
+    WeeklySchedule[] schedules;
+    final StringBuilder target = new StringBuilder();
+    private int next;
+
+    @Setup
+    public void setUp() {
+      final BenchmarkInput input = new BenchmarkInput();
+      input.load(corpus, language);
+      formatter = new ScheduleFormatter(Locale.forLanguageTag(language));
+      schedules = new WeeklySchedule[input.inputs.length];
+      for (int i = 0; i < schedules.length; i++) {
+        schedules[i] = input.openingHours.compile(input.tokens[i]);
+      }
+    }
+
+    final WeeklySchedule next() {
+      final WeeklySchedule current = schedules[next];
+      next = next + 1 == schedules.length ? 0 : next + 1;
+      return current;
+    }
+  }
+
+  @Benchmark
+  public int formatTo(final Schedules schedules) {
+    schedules.target.setLength(0);
+    return schedules.formatter.formatTo(schedules.next(), schedules.target).length();
+  }
+}
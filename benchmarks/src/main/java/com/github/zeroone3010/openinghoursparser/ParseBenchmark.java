@@ -0,0 +1,35 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole path from a String to a {@link WeeklySchedule}, both in separate phases and in one pass.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+  @Benchmark
+  public Object tokenizeValidateCompile(final BenchmarkInput input) {
+    final OpeningHours openingHours = input.openingHours;
+    final List<Token> tokens = openingHours.tokenize(input.inputs[input.next()]);
+    final ValidationResult result = openingHours.validate(tokens);
+    return result.isValid() ? openingHours.compile(tokens) : result;
+  }
+
+  @Benchmark
+  public ParseResult parse(final BenchmarkInput input) {
+    return input.openingHours.parse(input.inputs[input.next()]);
+  }
+}
@@ -0,0 +1,28 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateBenchmark {
+  @Benchmark
+  public ValidationResult validate(final BenchmarkInput input) {
+    return input.openingHours.validate(input.tokens[input.next()]);
+  }
+
+  @Benchmark
+  public int findInvalidOffset(final BenchmarkInput input) {
+    return input.openingHours.findInvalidOffset(input.inputs[input.next()]);
+  }
+}
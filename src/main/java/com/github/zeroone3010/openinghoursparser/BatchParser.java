@@ -0,0 +1,90 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses the inputs of a batch in parallel. Each task writes the results of its own slice of the inputs straight
+ * into the result array, so the tasks share no mutable state and the order of the inputs is kept.
+ */
+final class BatchParser {
+  private static final int MIN_SLICE = 16;
+  private static final int SLICES_PER_THREAD = 8;
+
+  private final OpeningHours openingHours;
+  private final List<? extends CharSequence> inputs;
+  private final ParseResult[] results;
+
+  BatchParser(final OpeningHours openingHours, final List<? extends CharSequence> inputs) {
+    this.openingHours = openingHours;
+    this.inputs = inputs instanceof RandomAccess ? inputs : new ArrayList<>(inputs);
+    this.results = new ParseResult[inputs.size()];
+  }
+
+  BatchResult parse(final ForkJoinPool pool) {
+    pool.invoke(new Slice(0, results.length, sliceSize(pool.getParallelism())));
+    return new BatchResult(results);
+  }
+
+  BatchResult parse(final Executor executor, final int parallelism) {
+    final int sliceSize = sliceSize(parallelism);
+    final CompletableFuture<?>[] slices = new CompletableFuture<?>[(results.length + sliceSize - 1) / sliceSize];
+    for (int i = 0; i < slices.length; i++) {
+      final int from = i * sliceSize;
+      final int to = Math.min(results.length, from + sliceSize);
+      slices[i] = CompletableFuture.runAsync(() -> parse(from, to), executor);
+    }
+    CompletableFuture.allOf(slices).join();
+    return new BatchResult(results);
+  }
+
+  private int sliceSize(final int parallelism) {
+    return Math.max(MIN_SLICE, results.length / (Math.max(1, parallelism) * SLICES_PER_THREAD) + 1);
+  }
+
+  private void parse(final int from, final int to) {
+    for (int i = from; i < to; i++) {
+      results[i] = parseOne(inputs.get(i));
+    }
+  }
+
+  private ParseResult parseOne(final CharSequence input) {
+    if (input == null) {
+      return ParseResult.invalid(new ValidationResult(false, "No input"));
+    }
+    try {
+      return openingHours.parse(input);
+    } catch (final RuntimeException e) {
+      return ParseResult.failed(e);
+    }
+  }
+
+  private final class Slice extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int sliceSize;
+
+    private Slice(final int from, final int to, final int sliceSize) {
+      this.from = from;
+      this.to = to;
+      this.sliceSize = sliceSize;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= sliceSize) {
+        parse(from, to);
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      invokeAll(new Slice(from, middle, sliceSize), new Slice(middle, to, sliceSize));
+    }
+  }
+}
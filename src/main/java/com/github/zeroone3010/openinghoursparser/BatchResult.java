@@ -0,0 +1,75 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of parsing many inputs at once: one {@link ParseResult} per input, in the order of the inputs, and
+ * the failures among them together with their indices.
+ */
+public final class BatchResult {
+  private final List<ParseResult> results;
+  private final List<Failure> failures;
+
+  BatchResult(final ParseResult[] results) {
+    this.results = Collections.unmodifiableList(Arrays.asList(results));
+    final List<Failure> failures = new ArrayList<>();
+    for (int i = 0; i < results.length; i++) {
+      if (!results[i].isValid()) {
+        failures.add(new Failure(i, results[i].getValidationResult()));
+      }
+    }
+    this.failures = Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * @return The results of all inputs, in the order of the inputs.
+   */
+  public List<ParseResult> getResults() {
+    return results;
+  }
+
+  /**
+   * @return The inputs that could not be parsed, in the order of the inputs.
+   */
+  public List<Failure> getFailures() {
+    return failures;
+  }
+
+  public int size() {
+    return results.size();
+  }
+
+  @Override
+  public String toString() {
+    return "BatchResult{" + results.size() + " results, " + failures.size() + " failures}";
+  }
+
+  public static final class Failure {
+    private final int index;
+    private final ValidationResult validationResult;
+
+    Failure(final int index, final ValidationResult validationResult) {
+      this.index = index;
+      this.validationResult = validationResult;
+    }
+
+    /**
+     * @return The position of the input in the batch.
+     */
+    public int getIndex() {
+      return index;
+    }
+
+    public ValidationResult getValidationResult() {
+      return validationResult;
+    }
+
+    @Override
+    public String toString() {
+      return "Failure{" + index + ", " + validationResult + '}';
+    }
+  }
+}
@@ -1,43 +1,128 @@
 package com.github.zeroone3010.openinghoursparser;
 
 import java.time.LocalTime;
-import java.util.Objects;
+import java.util.Arrays;
 
+/**
+ * The opening hours of one day, as any number of intervals from an opening time to a closing time. Times are kept
+ * as minutes of day, so they cannot have seconds. An interval whose closing time is not after its opening time
+ * lasts over midnight into the next day.
+ */
 public final class DailySchedule {
-  final LocalTime open;
-  final LocalTime close;
-  final boolean closed;
+  private static final short[] NO_MINUTES = new short[0];
+  private static final DailySchedule CLOSED_DAY = new DailySchedule(NO_MINUTES);
+
+  /**
+   * The opening and closing minutes of day of the intervals, in pairs, sorted by opening and then closing time.
+   */
+  final short[] minutes;
 
   public DailySchedule(final LocalTime open, final LocalTime close) {
-    this.open = open;
-    this.close = close;
-    this.closed = false;
+    this(toMinuteOfDay(open), toMinuteOfDay(close));
+  }
+
+  DailySchedule(final int open, final int close) {
+    this(new short[]{(short) open, (short) close});
   }
 
-  private DailySchedule(final boolean closed) {
-    this.open = null;
-    this.close = null;
-    this.closed = closed;
+  /**
+   * @param minutes Intervals as in {@link #minutes}, already sorted. The array is not copied.
+   */
+  DailySchedule(final short[] minutes) {
+    this.minutes = minutes;
   }
 
   public static DailySchedule closed() {
-    return new DailySchedule(true);
+    return CLOSED_DAY;
+  }
+
+  /**
+   * @return A schedule with the intervals of this one and the given one, e.g. for a break in the middle of the day.
+   */
+  public DailySchedule with(final LocalTime open, final LocalTime close) {
+    return new DailySchedule(insert(minutes, minutes.length, toMinuteOfDay(open), toMinuteOfDay(close)));
+  }
+
+  public boolean isClosed() {
+    return minutes.length == 0;
+  }
+
+  public int getIntervalCount() {
+    return minutes.length / 2;
   }
 
+  /**
+   * @return The opening time of the first interval, or null if the place is closed for the whole day.
+   */
   public LocalTime getOpen() {
-    return open;
+    return isClosed() ? null : getOpen(0);
   }
 
+  /**
+   * @return The closing time of the first interval, or null if the place is closed for the whole day.
+   */
   public LocalTime getClose() {
-    return close;
+    return isClosed() ? null : getClose(0);
+  }
+
+  /**
+   * @param index The index of an interval, from 0 to {@link #getIntervalCount()} - 1, in order of opening time.
+   */
+  public LocalTime getOpen(final int index) {
+    return toLocalTime(minutes[2 * index]);
+  }
+
+  /**
+   * @param index The index of an interval, from 0 to {@link #getIntervalCount()} - 1, in order of opening time.
+   */
+  public LocalTime getClose(final int index) {
+    return toLocalTime(minutes[2 * index + 1]);
+  }
+
+  static int toMinuteOfDay(final LocalTime time) {
+    if (time.getSecond() != 0 || time.getNano() != 0) {
+      throw new IllegalArgumentException("Opening hours are given in whole minutes, not " + time);
+    }
+    return time.getHour() * 60 + time.getMinute();
+  }
+
+  private static LocalTime toLocalTime(final int minuteOfDay) {
+    return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+  }
+
+  /**
+   * Adds an interval to the first pairs of a sorted array of intervals, unless it is there already.
+   *
+   * @param minutes An array of intervals, which may be longer than the given size.
+   * @param size    The number of minutes in use.
+   * @return A new array that holds exactly the intervals.
+   */
+  static short[] insert(final short[] minutes, final int size, final int open, final int close) {
+    int i = 0;
+    while (i < size && (minutes[i] < open || minutes[i] == open && minutes[i + 1] < close)) {
+      i += 2;
+    }
+    if (i < size && minutes[i] == open && minutes[i + 1] == close) {
+      return Arrays.copyOf(minutes, size);
+    }
+    final short[] result = new short[size + 2];
+    System.arraycopy(minutes, 0, result, 0, i);
+    result[i] = (short) open;
+    result[i + 1] = (short) close;
+    System.arraycopy(minutes, i, result, i + 2, size - i);
+    return result;
   }
 
   @Override
   public String toString() {
-    if (closed) {
+    if (isClosed()) {
       return "Closed";
     }
-    return "Open " + open + "-" + close;
+    final StringBuilder result = new StringBuilder("Open ");
+    for (int i = 0; i < getIntervalCount(); i++) {
+      result.append(i == 0 ? "" : ", ").append(getOpen(i)).append('-').append(getClose(i));
+    }
+    return result.toString();
   }
 
   @Override
@@ -45,12 +130,11 @@ public final class DailySchedule {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     final DailySchedule that = (DailySchedule) o;
-    return Objects.equals(getOpen(), that.getOpen()) &&
-        Objects.equals(getClose(), that.getClose());
+    return Arrays.equals(minutes, that.minutes);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(getOpen(), getClose());
+    return Arrays.hashCode(minutes);
   }
 }
@@ -0,0 +1,142 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * The opening hours of single dates, such as public holidays, which replace those of their days of the week.
+ *
+ * The dates are found in constant time: each year that has exceptions has a table with a slot for each day of the
+ * year, which holds the index of the exception of that day plus one, or zero if the day has none.
+ */
+final class DateExceptions {
+  static final DateExceptions NONE = new DateExceptions(new int[0], new short[0], new int[0]);
+
+  /**
+   * The most dates that one schedule can have exceptions for.
+   */
+  static final int MAX_DATES = 4096;
+
+  /**
+   * The most intervals that the exceptions of one schedule can have in all.
+   */
+  static final int MAX_INTERVALS = 0xFFFF;
+
+  /**
+   * The epoch days of the first and the last date that can have an exception, those of the years with four digits
+   * that opening hours can express.
+   */
+  static final long FIRST_DATE = LocalDate.of(0, 1, 1).toEpochDay();
+  static final long LAST_DATE = LocalDate.of(9999, 12, 31).toEpochDay();
+
+  private static final int DAYS_PER_YEAR = 366;
+
+  /**
+   * The epoch days of the dates, in order.
+   */
+  final int[] dates;
+
+  /**
+   * The opening and closing minutes of day of the intervals of all dates, in pairs, in the order of the dates and
+   * within each date as in {@link DailySchedule}.
+   */
+  final short[] minutes;
+
+  /**
+   * For each date, the index in {@link #minutes} at which its intervals end. A date without intervals is closed.
+   */
+  private final int[] ends;
+
+  private final int firstYear;
+
+  /**
+   * The tables of the years from the first year onwards, or null for the years without exceptions.
+   */
+  private final char[][] years;
+
+  DateExceptions(final int[] dates, final short[] minutes, final int[] ends) {
+    this.dates = dates;
+    this.minutes = minutes;
+    this.ends = ends;
+    if (dates.length == 0) {
+      firstYear = 0;
+      years = new char[0][];
+      return;
+    }
+    firstYear = LocalDate.ofEpochDay(dates[0]).getYear();
+    years = new char[LocalDate.ofEpochDay(dates[dates.length - 1]).getYear() - firstYear + 1][];
+    for (int i = 0; i < dates.length; i++) {
+      final LocalDate date = LocalDate.ofEpochDay(dates[i]);
+      final int year = date.getYear() - firstYear;
+      if (years[year] == null) {
+        years[year] = new char[DAYS_PER_YEAR];
+      }
+      years[year][date.getDayOfYear() - 1] = (char) (i + 1);
+    }
+  }
+
+  int size() {
+    return dates.length;
+  }
+
+  int begin(final int index) {
+    return index == 0 ? 0 : ends[index - 1];
+  }
+
+  int end(final int index) {
+    return ends[index];
+  }
+
+  /**
+   * @param dayOfYear The day of the year, from 1 to 366.
+   * @return The index of the exception of the given day, or -1 if it has none.
+   */
+  int find(final int year, final int dayOfYear) {
+    final int index = year - firstYear;
+    if (index < 0 || index >= years.length || years[index] == null) {
+      return -1;
+    }
+    return years[index][dayOfYear - 1] - 1;
+  }
+
+  /**
+   * @return The index of the exception of the day before the given one, or -1 if it has none.
+   */
+  int findDayBefore(final int year, final int dayOfYear) {
+    if (dayOfYear > 1) {
+      return find(year, dayOfYear - 1);
+    }
+    return find(year - 1, Year.isLeap(year - 1) ? DAYS_PER_YEAR : DAYS_PER_YEAR - 1);
+  }
+
+  /**
+   * @return The index of the first exception on or after the given epoch day, or {@link #size()} if there is none.
+   */
+  int ceiling(final long epochDay) {
+    final long day = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+    final int index = Arrays.binarySearch(dates, (int) day);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * @return The same as {@link #find(int, int)}, for an epoch day.
+   */
+  int find(final long epochDay) {
+    final int index = epochDay == (int) epochDay ? Arrays.binarySearch(dates, (int) epochDay) : -1;
+    return index >= 0 ? index : -1;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    final DateExceptions that = (DateExceptions) o;
+    return Arrays.equals(dates, that.dates) && Arrays.equals(ends, that.ends) && Arrays.equals(minutes, that.minutes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(dates) + Arrays.hashCode(minutes);
+  }
+}
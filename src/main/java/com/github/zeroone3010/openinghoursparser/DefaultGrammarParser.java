@@ -0,0 +1,263 @@
+package com.github.zeroone3010.openinghoursparser;
+
+// Generated by ParserGenerator. Do not edit by hand; run ParserGenerator.main to regenerate.
+
+/**
+ * A recursive-descent parser for {@link Grammars#defaultGrammar()}, which accepts and rejects the same
+ * inputs as a {@link Parser} of that grammar.
+ */
+final class DefaultGrammarParser {
+  private static final int FAILED = -1;
+  private static final int DONE = 0;
+  private static final int SCHEDULE = 1;
+  private static final int MORE_SCHEDULES = 2;
+  private static final int WEEKDAY_RANGE = 3;
+  private static final int WEEKDAY = 4;
+  private static final int MORE_TIME_RANGES = 5;
+  private static final int TIME_RANGE = 6;
+  private static final int DATE_RANGE = 7;
+
+  private final Lexer.Cursor cursor;
+  private final ScheduleCompiler compiler;
+  private TokenType lookahead;
+
+  private DefaultGrammarParser(final Lexer.Cursor cursor, final ScheduleCompiler compiler) {
+    this.cursor = cursor;
+    this.compiler = compiler;
+    this.lookahead = cursor.type();
+  }
+
+  /**
+   * Parses the tokens of the cursor, from its current one to the end, and feeds them to the compiler.
+   *
+   * @return false if the tokens are not valid. The cursor is then at the token that was rejected, or has ended.
+   */
+  static boolean parse(final Lexer.Cursor cursor, final ScheduleCompiler compiler) {
+    final DefaultGrammarParser parser = new DefaultGrammarParser(cursor, compiler);
+    return parser.resume(parser.openingHours()) && parser.lookahead == TokenType.END_OF_INPUT;
+  }
+
+  private void consume() {
+    compiler.accept(cursor);
+    lookahead = cursor.next() ? cursor.type() : TokenType.END_OF_INPUT;
+  }
+
+  /**
+   * Goes on from the state that a nonterminal method returned until that nonterminal has been parsed.
+   */
+  private boolean resume(final int state) {
+    int next = state;
+    while (next > DONE) {
+      switch (next) {
+        case SCHEDULE:
+          next = schedule();
+          break;
+        case MORE_SCHEDULES:
+          next = moreSchedules();
+          break;
+        case WEEKDAY_RANGE:
+          next = weekdayRange();
+          break;
+        case WEEKDAY:
+          next = weekday();
+          break;
+        case MORE_TIME_RANGES:
+          next = moreTimeRanges();
+          break;
+        case TIME_RANGE:
+          next = timeRange();
+          break;
+        case DATE_RANGE:
+          next = dateRange();
+          break;
+        default:
+          next = FAILED;
+      }
+    }
+    return next == DONE;
+  }
+
+  private int openingHours() {
+    switch (lookahead) {
+      case MONDAY:
+      case TUESDAY:
+      case WEDNESDAY:
+      case THURSDAY:
+      case FRIDAY:
+      case SATURDAY:
+      case SUNDAY:
+      case DATE:
+        return SCHEDULE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int schedule() {
+    switch (lookahead) {
+      case MONDAY:
+      case TUESDAY:
+      case WEDNESDAY:
+      case THURSDAY:
+      case FRIDAY:
+      case SATURDAY:
+      case SUNDAY:
+        if (!resume(weekdayExpression())) {
+          return FAILED;
+        }
+        if (!resume(timeRange())) {
+          return FAILED;
+        }
+        return MORE_SCHEDULES;
+      case DATE:
+        if (!resume(dateExpression())) {
+          return FAILED;
+        }
+        if (!resume(dateHours())) {
+          return FAILED;
+        }
+        return MORE_SCHEDULES;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int moreSchedules() {
+    switch (lookahead) {
+      case SCHEDULE_SEPARATOR:
+        consume();
+        return SCHEDULE;
+      case END_OF_INPUT:
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int weekdayExpression() {
+    switch (lookahead) {
+      case MONDAY:
+      case TUESDAY:
+      case WEDNESDAY:
+      case THURSDAY:
+      case FRIDAY:
+      case SATURDAY:
+      case SUNDAY:
+        if (!resume(weekday())) {
+          return FAILED;
+        }
+        return WEEKDAY_RANGE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int weekday() {
+    switch (lookahead) {
+      case MONDAY:
+        consume();
+        return DONE;
+      case TUESDAY:
+        consume();
+        return DONE;
+      case WEDNESDAY:
+        consume();
+        return DONE;
+      case THURSDAY:
+        consume();
+        return DONE;
+      case FRIDAY:
+        consume();
+        return DONE;
+      case SATURDAY:
+        consume();
+        return DONE;
+      case SUNDAY:
+        consume();
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int weekdayRange() {
+    switch (lookahead) {
+      case RANGE_INDICATOR:
+        consume();
+        return WEEKDAY;
+      case TIME:
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int timeRange() {
+    switch (lookahead) {
+      case TIME:
+        consume();
+        if (lookahead != TokenType.RANGE_INDICATOR) {
+          return FAILED;
+        }
+        consume();
+        if (lookahead != TokenType.TIME) {
+          return FAILED;
+        }
+        consume();
+        return MORE_TIME_RANGES;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int moreTimeRanges() {
+    switch (lookahead) {
+      case TIME:
+        return TIME_RANGE;
+      case SCHEDULE_SEPARATOR:
+      case END_OF_INPUT:
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int dateExpression() {
+    switch (lookahead) {
+      case DATE:
+        consume();
+        return DATE_RANGE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int dateRange() {
+    switch (lookahead) {
+      case RANGE_INDICATOR:
+        consume();
+        if (lookahead != TokenType.DATE) {
+          return FAILED;
+        }
+        consume();
+        return DONE;
+      case TIME:
+      case OFF:
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+
+  private int dateHours() {
+    switch (lookahead) {
+      case TIME:
+        return TIME_RANGE;
+      case OFF:
+        consume();
+        return DONE;
+      default:
+        return FAILED;
+    }
+  }
+}
@@ -15,6 +15,7 @@ public final class Grammars {
    *
    * OpeningHours -> Schedule
    * Schedule -> WeekdayExpression TimeRange MoreSchedules
+   * Schedule -> DateExpression DateHours MoreSchedules
    * MoreSchedules -> schedule_separator Schedule
    * MoreSchedules -> ε
    * WeekdayExpression -> Weekday WeekdayRange
@@ -27,7 +28,17 @@ public final class Grammars {
    * Weekday -> sunday
    * WeekdayRange -> range_indicator Weekday
    * WeekdayRange -> ε
-   * TimeRange -> time range_indicator time
+   * TimeRange -> time range_indicator time MoreTimeRanges
+   * MoreTimeRanges -> TimeRange
+   * MoreTimeRanges -> ε
+   * DateExpression -> date DateRange
+   * DateRange -> range_indicator date
+   * DateRange -> ε
+   * DateHours -> TimeRange
+   * DateHours -> off
+   *
+   * The schedules of dates, such as "2026-12-24-2026-12-26 off" or "2026-12-31 10:00-14:00", replace the schedules
+   * of their days of the week.
    *
    * @return List of {@link Rule}s for a default opening hours grammar.
    */
@@ -35,6 +46,7 @@ public final class Grammars {
     final List<Rule> grammar = new ArrayList<>();
     grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.SCHEDULE)));
     grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.WEEKDAY_EXPRESSION, TokenType.TIME_RANGE, TokenType.MORE_SCHEDULES)));
+    grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.DATE_EXPRESSION, TokenType.DATE_HOURS, TokenType.MORE_SCHEDULES)));
     grammar.add(new Rule(TokenType.MORE_SCHEDULES, asList(TokenType.SCHEDULE_SEPARATOR, TokenType.SCHEDULE)));
     grammar.add(new Rule(TokenType.MORE_SCHEDULES, asList(TokenType.EMPTY)));
     grammar.add(new Rule(TokenType.WEEKDAY_EXPRESSION, asList(TokenType.WEEKDAY, TokenType.WEEKDAY_RANGE)));
@@ -47,7 +59,15 @@ public final class Grammars {
     grammar.add(new Rule(TokenType.WEEKDAY, asList(TokenType.SUNDAY)));
     grammar.add(new Rule(TokenType.WEEKDAY_RANGE, asList(TokenType.RANGE_INDICATOR, TokenType.WEEKDAY)));
     grammar.add(new Rule(TokenType.WEEKDAY_RANGE, asList(TokenType.EMPTY)));
-    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.TIME, TokenType.RANGE_INDICATOR, TokenType.TIME)));
+    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.TIME, TokenType.RANGE_INDICATOR, TokenType.TIME,
+        TokenType.MORE_TIME_RANGES)));
+    grammar.add(new Rule(TokenType.MORE_TIME_RANGES, asList(TokenType.TIME_RANGE)));
+    grammar.add(new Rule(TokenType.MORE_TIME_RANGES, asList(TokenType.EMPTY)));
+    grammar.add(new Rule(TokenType.DATE_EXPRESSION, asList(TokenType.DATE, TokenType.DATE_RANGE)));
+    grammar.add(new Rule(TokenType.DATE_RANGE, asList(TokenType.RANGE_INDICATOR, TokenType.DATE)));
+    grammar.add(new Rule(TokenType.DATE_RANGE, asList(TokenType.EMPTY)));
+    grammar.add(new Rule(TokenType.DATE_HOURS, asList(TokenType.TIME_RANGE)));
+    grammar.add(new Rule(TokenType.DATE_HOURS, asList(TokenType.OFF)));
     return grammar;
   }
 }
@@ -0,0 +1,472 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A single-pass scanner that splits opening hours into the {@link Token}s of a {@link LocalizedTokens} vocabulary.
+ *
+ * Starting from the end of the previous token, the scanner grows a candidate one character at a time and stops at
+ * the first, i.e. the shortest, candidate that matches the vocabulary. If nothing matches before the input ends,
+ * the rest of the input is an unknown token. White space tokens are skipped. The words, i.e. the day names of all
+ * locales of the vocabulary and the word "off", are kept in one {@link Trie}, which is walked along with the
+ * candidate, so any number of locales costs one pass. Words are the exception to the shortest match: a word that
+ * is the beginning of a longer one, such as Finnish "ma" of French "mar.", is only taken once the longer words no
+ * longer match, or the candidate would otherwise become an unknown token. The scanner then goes on right after it.
+ *
+ * The input may also be UTF-8 bytes, which are scanned as they are. All tokens other than day names and unknown
+ * tokens are ASCII, and a day name matches exactly when its UTF-8 bytes do, so the tokens are the same as those of
+ * the decoded characters.
+ */
+final class Lexer {
+  private static final String RANGE_INDICATOR = "-";
+  private static final String SCHEDULE_SEPARATOR = ",";
+
+  private final List<Locale> locales;
+  private final String[] words;
+  private final TokenType[] wordTypes;
+  private final long[] wordLocales;
+  private final Trie wordChars;
+  private final Trie wordBytes;
+
+  public Lexer(final LocalizedTokens localizedTokens) {
+    final Map<String, TokenType> words = new LinkedHashMap<>(localizedTokens.getWeekdays());
+    words.putIfAbsent(LocalizedTokens.OFF, TokenType.OFF);
+    this.locales = localizedTokens.getLocales();
+    this.words = new String[words.size()];
+    this.wordTypes = new TokenType[words.size()];
+    this.wordLocales = new long[words.size()];
+    final List<int[]> chars = new ArrayList<>();
+    final List<int[]> bytes = new ArrayList<>();
+    int i = 0;
+    for (final Map.Entry<String, TokenType> word : words.entrySet()) {
+      this.words[i] = word.getKey();
+      wordTypes[i] = word.getValue();
+      wordLocales[i] = localizedTokens.getLocales(word.getKey());
+      chars.add(word.getKey().chars().toArray());
+      final byte[] utf8 = word.getKey().getBytes(StandardCharsets.UTF_8);
+      final int[] unsigned = new int[utf8.length];
+      for (int j = 0; j < utf8.length; j++) {
+        unsigned[j] = utf8[j] & 0xFF;
+      }
+      bytes.add(unsigned);
+      i++;
+    }
+    this.wordChars = new Trie(chars);
+    this.wordBytes = new Trie(bytes);
+  }
+
+  public List<Token> tokenize(final CharSequence input) {
+    final List<Token> tokens = new ArrayList<>();
+    final Cursor cursor = cursor(input);
+    while (cursor.next()) {
+      tokens.add(cursor.token());
+    }
+    return tokens;
+  }
+
+  Cursor cursor(final CharSequence input) {
+    return new CharCursor(input);
+  }
+
+  /**
+   * @param input UTF-8 bytes from the position to the limit of the buffer, which are left unchanged.
+   */
+  Cursor cursor(final ByteBuffer input) {
+    return new Utf8Cursor(input);
+  }
+
+  /**
+   * @return The words, by the index that the values of {@link #wordTrie()} refer to.
+   */
+  List<String> words() {
+    return Collections.unmodifiableList(Arrays.asList(words));
+  }
+
+  TokenType wordType(final int index) {
+    return wordTypes[index];
+  }
+
+  /**
+   * @return The trie of the chars of the words.
+   */
+  Trie wordTrie() {
+    return wordChars;
+  }
+
+  /**
+   * @param mask A bit mask of locales, by their index in {@link LocalizedTokens#getLocales()}.
+   * @return The first of the locales, or null if there are none.
+   */
+  Locale locale(final long mask) {
+    return mask == 0 ? null : locales.get(Long.numberOfTrailingZeros(mask));
+  }
+
+  /**
+   * Walks over the tokens of one input. The type and position of the current token are available after each
+   * successful call to {@link #next()}; a {@link Token} object is only created on request.
+   */
+  abstract class Cursor {
+    int position;
+    int start;
+    int end;
+    TokenType type;
+    String value;
+    long locales;
+    boolean ended;
+
+    /**
+     * Moves to the next token that is not white space.
+     *
+     * @return false if the input has been exhausted.
+     */
+    final boolean next() {
+      while (position < length()) {
+        start = position;
+        value = null;
+        locales = 0;
+        scan();
+        position = end;
+        if (type != TokenType.WHITE_SPACE) {
+          return true;
+        }
+      }
+      ended = true;
+      return false;
+    }
+
+    /**
+     * @return true once {@link #next()} has returned false.
+     */
+    final boolean ended() {
+      return ended;
+    }
+
+    final TokenType type() {
+      return type;
+    }
+
+    /**
+     * @return The position of the token in the input, in chars or bytes depending on the input.
+     */
+    final int start() {
+      return start;
+    }
+
+    final int end() {
+      return end;
+    }
+
+    /**
+     * @return For a day name, a bit mask of the locales in which it means that day, as in
+     * {@link LocalizedTokens#getLocales(String)}; otherwise zero.
+     */
+    final long locales() {
+      return locales;
+    }
+
+    /**
+     * Takes the word that ends in the given node of a trie of words as the token, which then ends at the given end.
+     */
+    final void takeWord(final Trie trie, final int node, final int wordEnd) {
+      final int word = trie.value(node);
+      end = wordEnd;
+      type = wordTypes[word];
+      value = words[word];
+      locales = wordLocales[word];
+    }
+
+    final String text() {
+      if (value == null) {
+        value = decode();
+      }
+      return value;
+    }
+
+    final Token token() {
+      return new Token(type, text());
+    }
+
+    /**
+     * @return The minute of day of a time token, or -1 if the token is not a time or the time does not exist.
+     */
+    abstract int time();
+
+    /**
+     * @return The epoch day of a date token, or {@link LocalizedTokens#NO_DATE} if the token is not a date or the
+     * date does not exist.
+     */
+    abstract int date();
+
+    abstract int length();
+
+    /**
+     * Finds the end and type of the token that begins at the start.
+     */
+    abstract void scan();
+
+    abstract String decode();
+  }
+
+  private final class CharCursor extends Cursor {
+    private final CharSequence input;
+
+    private CharCursor(final CharSequence input) {
+      this.input = input;
+    }
+
+    @Override
+    int time() {
+      return type == TokenType.TIME ? LocalizedTokens.minuteOfDay(input, start) : -1;
+    }
+
+    @Override
+    int date() {
+      return type == TokenType.DATE ? LocalizedTokens.epochDay(input, start) : LocalizedTokens.NO_DATE;
+    }
+
+    @Override
+    int length() {
+      return input.length();
+    }
+
+    @Override
+    String decode() {
+      return input.subSequence(start, end).toString();
+    }
+
+    @Override
+    void scan() {
+      final int length = input.length();
+      boolean lineTerminatorSeen = false;
+      int node = Trie.ROOT;
+      int wordNode = -1; // The longest word so far, if longer words may still match.
+      int wordEnd = start;
+      for (end = start + 1; end <= length; end++) {
+        final int candidateLength = end - start;
+        final char last = input.charAt(end - 1);
+        if (node >= 0) {
+          node = wordChars.step(node, last);
+          if (node >= 0 && wordChars.value(node) >= 0) {
+            if (wordChars.isLeaf(node)) {
+              takeWord(wordChars, node, end);
+              return;
+            }
+            wordNode = node;
+            wordEnd = end;
+          } else if (node < 0 && wordNode >= 0) {
+            takeWord(wordChars, wordNode, wordEnd);
+            return;
+          }
+        }
+        if (candidateLength == 1 && last == '-') {
+          type = TokenType.RANGE_INDICATOR;
+          value = RANGE_INDICATOR;
+          return;
+        }
+        if (candidateLength == LocalizedTokens.TIME_LENGTH && LocalizedTokens.isTime(input, start)) {
+          type = TokenType.TIME;
+          return;
+        }
+        if (candidateLength == LocalizedTokens.DATE_LENGTH && LocalizedTokens.isDate(input, start)) {
+          type = TokenType.DATE;
+          return;
+        }
+        if (LocalizedTokens.isWhiteSpace(last)) {
+          if (candidateLength == 1) {
+            type = TokenType.WHITE_SPACE;
+            return;
+          }
+          if (!lineTerminatorSeen) {
+            if (wordNode >= 0) {
+              takeWord(wordChars, wordNode, wordEnd);
+              return;
+            }
+            type = TokenType.UNKNOWN;
+            return;
+          }
+        }
+        if (candidateLength == 1 && last == ',') {
+          type = TokenType.SCHEDULE_SEPARATOR;
+          value = SCHEDULE_SEPARATOR;
+          return;
+        }
+        lineTerminatorSeen |= LocalizedTokens.isLineTerminator(last);
+        if (lineTerminatorSeen && node < 0 && candidateLength >= LocalizedTokens.TIME_LENGTH) {
+          break; // Nothing can match any longer.
+        }
+      }
+      if (wordNode >= 0) {
+        takeWord(wordChars, wordNode, wordEnd);
+        return;
+      }
+      end = length;
+      type = TokenType.UNKNOWN;
+    }
+  }
+
+  /**
+   * Scans UTF-8 bytes with the same rules as {@link CharCursor}. The tokens end at the same characters, because the
+   * white space, separators, digits and the first bytes of the line terminators are ASCII or lead bytes, which never
+   * occur inside another character.
+   */
+  private final class Utf8Cursor extends Cursor {
+    private final ByteBuffer input;
+    private final int offset;
+    private final int length;
+
+    private Utf8Cursor(final ByteBuffer input) {
+      this.input = input;
+      this.offset = input.position();
+      this.length = input.remaining();
+    }
+
+    private byte at(final int index) {
+      return input.get(offset + index);
+    }
+
+    @Override
+    int time() {
+      return type == TokenType.TIME
+          ? LocalizedTokens.minuteOfDay(at(start), at(start + 1), at(start + 3), at(start + 4)) : -1;
+    }
+
+    @Override
+    int date() {
+      return type == TokenType.DATE
+          ? LocalizedTokens.epochDay(number(start, 4), number(start + 5, 2), number(start + 8, 2))
+          : LocalizedTokens.NO_DATE;
+    }
+
+    private int number(final int position, final int length) {
+      int result = 0;
+      for (int i = position; i < position + length; i++) {
+        result = result * 10 + at(i) - '0';
+      }
+      return result;
+    }
+
+    @Override
+    int length() {
+      return length;
+    }
+
+    @Override
+    String decode() {
+      final ByteBuffer token = input.duplicate();
+      token.limit(offset + end).position(offset + start);
+      return StandardCharsets.UTF_8.decode(token).toString();
+    }
+
+    @Override
+    void scan() {
+      boolean lineTerminatorSeen = false;
+      int node = Trie.ROOT;
+      int wordNode = -1; // The longest word so far, if longer words may still match.
+      int wordEnd = start;
+      for (end = start + 1; end <= length; end++) {
+        final int candidateLength = end - start;
+        final byte last = at(end - 1);
+        if (node >= 0) {
+          node = wordBytes.step(node, last & 0xFF);
+          if (node >= 0 && wordBytes.value(node) >= 0) {
+            if (wordBytes.isLeaf(node)) {
+              takeWord(wordBytes, node, end);
+              return;
+            }
+            wordNode = node;
+            wordEnd = end;
+          } else if (node < 0 && wordNode >= 0) {
+            takeWord(wordBytes, wordNode, wordEnd);
+            return;
+          }
+        }
+        if (candidateLength == 1 && last == '-') {
+          type = TokenType.RANGE_INDICATOR;
+          value = RANGE_INDICATOR;
+          return;
+        }
+        if (candidateLength == LocalizedTokens.TIME_LENGTH && isTime()) {
+          type = TokenType.TIME;
+          return;
+        }
+        if (candidateLength == LocalizedTokens.DATE_LENGTH && isDate()) {
+          type = TokenType.DATE;
+          return;
+        }
+        if (last >= 0 && LocalizedTokens.isWhiteSpace((char) last)) {
+          if (candidateLength == 1) {
+            type = TokenType.WHITE_SPACE;
+            return;
+          }
+          if (!lineTerminatorSeen) {
+            if (wordNode >= 0) {
+              takeWord(wordBytes, wordNode, wordEnd);
+              return;
+            }
+            type = TokenType.UNKNOWN;
+            return;
+          }
+        }
+        if (candidateLength == 1 && last == ',') {
+          type = TokenType.SCHEDULE_SEPARATOR;
+          value = SCHEDULE_SEPARATOR;
+          return;
+        }
+        lineTerminatorSeen |= endsLineTerminator(end);
+        if (lineTerminatorSeen && node < 0 && candidateLength >= LocalizedTokens.TIME_LENGTH) {
+          break; // Nothing can match any longer.
+        }
+      }
+      if (wordNode >= 0) {
+        takeWord(wordBytes, wordNode, wordEnd);
+        return;
+      }
+      end = length;
+      type = TokenType.UNKNOWN;
+    }
+
+    private boolean isTime() {
+      return isDigit(at(start)) && isDigit(at(start + 1)) && at(start + 2) == ':'
+          && isDigit(at(start + 3)) && isDigit(at(start + 4));
+    }
+
+    private boolean isDate() {
+      for (int i = 0; i < LocalizedTokens.DATE_LENGTH; i++) {
+        if (i == 4 || i == 7 ? at(start + i) != '-' : !isDigit(at(start + i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isDigit(final byte b) {
+      return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Tells whether the bytes of the candidate that end at the given position end in a line terminator: '\n', '\r',
+     * or U+0085, U+2028 and U+2029, which are C2 85, E2 80 A8 and E2 80 A9 in UTF-8.
+     */
+    private boolean endsLineTerminator(final int position) {
+      final byte last = at(position - 1);
+      if (last == '\n' || last == '\r') {
+        return true;
+      }
+      if (last == (byte) 0x85) {
+        return position - 2 >= start && at(position - 2) == (byte) 0xC2;
+      }
+      if (last == (byte) 0xA8 || last == (byte) 0xA9) {
+        return position - 3 >= start && at(position - 2) == (byte) 0x80 && at(position - 3) == (byte) 0xE2;
+      }
+      return false;
+    }
+  }
+}
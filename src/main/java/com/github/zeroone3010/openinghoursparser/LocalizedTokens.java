@@ -1,14 +1,33 @@
 package com.github.zeroone3010.openinghoursparser;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
 final class LocalizedTokens {
-  private final Map<String, TokenType> tokens = new LinkedHashMap<>();
+  static final int TIME_LENGTH = 5;
+  static final int DATE_LENGTH = 10;
+  static final String OFF = "off";
+
+  /**
+   * Stands for a date that does not exist, as no epoch day of a four-digit year can be this small.
+   */
+  static final int NO_DATE = Integer.MIN_VALUE;
+  static final int MAX_LOCALES = 64;
+
+  private final List<Locale> locales;
+  private final Map<String, TokenType> weekdays = new LinkedHashMap<>();
+  private final Map<String, Long> weekdayLocales = new HashMap<>();
 
   /**
    * Creates a LocalizedTokens instance for English names of the days of the week.
@@ -23,29 +42,165 @@ final class LocalizedTokens {
    * @param locale A Locale that specifies the language that the names of the days of the week should use.
    */
   public LocalizedTokens(final Locale locale) {
-    final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE", locale);
-    tokens.put(formatter.format(DayOfWeek.MONDAY), TokenType.MONDAY);
-    tokens.put(formatter.format(DayOfWeek.TUESDAY), TokenType.TUESDAY);
-    tokens.put(formatter.format(DayOfWeek.WEDNESDAY), TokenType.WEDNESDAY);
-    tokens.put(formatter.format(DayOfWeek.THURSDAY), TokenType.THURSDAY);
-    tokens.put(formatter.format(DayOfWeek.FRIDAY), TokenType.FRIDAY);
-    tokens.put(formatter.format(DayOfWeek.SATURDAY), TokenType.SATURDAY);
-    tokens.put(formatter.format(DayOfWeek.SUNDAY), TokenType.SUNDAY);
+    this(Collections.singletonList(locale));
+  }
 
-    tokens.put("-", TokenType.RANGE_INDICATOR);
-    tokens.put("\\d\\d:\\d\\d", TokenType.TIME);
-    tokens.put("\\s", TokenType.WHITE_SPACE);
-    tokens.put(",", TokenType.SCHEDULE_SEPARATOR);
-    tokens.put(".+\\s", TokenType.UNKNOWN);
+  /**
+   * Creates a LocalizedTokens instance for the names of the days of the week in all of the given locales. If a name
+   * means a different day in two locales, the locale that comes first wins.
+   *
+   * @param locales Up to {@value #MAX_LOCALES} locales, in the order of their precedence.
+   */
+  public LocalizedTokens(final List<Locale> locales) {
+    if (locales.isEmpty() || locales.size() > MAX_LOCALES) {
+      throw new IllegalArgumentException("Between 1 and " + MAX_LOCALES + " locales are supported: " + locales);
+    }
+    this.locales = Collections.unmodifiableList(new ArrayList<>(locales));
+    for (int i = 0; i < locales.size(); i++) {
+      final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE", locales.get(i));
+      for (final DayOfWeek day : DayOfWeek.values()) {
+        final String name = formatter.format(day);
+        final TokenType type = TokenType.valueOf(day.name());
+        weekdays.putIfAbsent(name, type);
+        if (weekdays.get(name) == type) {
+          weekdayLocales.merge(name, 1L << i, (a, b) -> a | b);
+        }
+      }
+    }
+  }
+
+  List<Locale> getLocales() {
+    return locales;
   }
 
+  /**
+   * @return A bit mask of the locales, by their index, in which the given day name means the day that it is
+   * matched as, or zero if it is not a day name.
+   */
+  long getLocales(final String weekday) {
+    return weekdayLocales.getOrDefault(weekday, 0L);
+  }
 
+  /**
+   * @return The localized names of the days of the week, in the order in which they take precedence.
+   */
+  Map<String, TokenType> getWeekdays() {
+    return Collections.unmodifiableMap(weekdays);
+  }
+
+  /**
+   * Matches the whole candidate against the vocabulary. In order of precedence, the candidate may be a day of week,
+   * the word "off", a range indicator, a time, a date, a single white space character, a schedule separator, or a
+   * word that ends in white space, which is unknown.
+   */
   Optional<Token> match(final String candidate) {
-    return tokens.keySet().stream()
-        .filter(candidate::matches)
-        .map(tokens::get)
-        .findAny()
-        .map(type -> new Token(type, candidate));
+    final TokenType weekday = weekdays.get(candidate);
+    if (weekday != null) {
+      return Optional.of(new Token(weekday, candidate));
+    }
+    if (candidate.equals(OFF)) {
+      return Optional.of(new Token(TokenType.OFF, candidate));
+    }
+    if (candidate.equals("-")) {
+      return Optional.of(new Token(TokenType.RANGE_INDICATOR, candidate));
+    }
+    if (candidate.length() == TIME_LENGTH && isTime(candidate, 0)) {
+      return Optional.of(new Token(TokenType.TIME, candidate));
+    }
+    if (candidate.length() == DATE_LENGTH && isDate(candidate, 0)) {
+      return Optional.of(new Token(TokenType.DATE, candidate));
+    }
+    if (candidate.length() == 1 && isWhiteSpace(candidate.charAt(0))) {
+      return Optional.of(new Token(TokenType.WHITE_SPACE, candidate));
+    }
+    if (candidate.equals(",")) {
+      return Optional.of(new Token(TokenType.SCHEDULE_SEPARATOR, candidate));
+    }
+    if (candidate.length() > 1 && isWhiteSpace(candidate.charAt(candidate.length() - 1))
+        && candidate.chars().limit(candidate.length() - 1).noneMatch(c -> isLineTerminator((char) c))) {
+      return Optional.of(new Token(TokenType.UNKNOWN, candidate));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Tells whether the five characters starting at the given position are a time such as "08:30".
+   */
+  static boolean isTime(final CharSequence input, final int start) {
+    return isDigit(input.charAt(start))
+        && isDigit(input.charAt(start + 1))
+        && input.charAt(start + 2) == ':'
+        && isDigit(input.charAt(start + 3))
+        && isDigit(input.charAt(start + 4));
+  }
+
+  /**
+   * Tells whether the ten characters starting at the given position are a date such as "2026-12-24".
+   */
+  static boolean isDate(final CharSequence input, final int start) {
+    for (int i = 0; i < DATE_LENGTH; i++) {
+      final char c = input.charAt(start + i);
+      if (i == 4 || i == 7 ? c != '-' : !isDigit(c)) {
+        return false;
+      }
+    }
+    return true;
   }
 
+  /**
+   * @return The epoch day of the date that starts at the given position, or {@link #NO_DATE} if the date does not
+   * exist.
+   */
+  static int epochDay(final CharSequence input, final int start) {
+    return epochDay(number(input, start, 4), number(input, start + 5, 2), number(input, start + 8, 2));
+  }
+
+  private static int number(final CharSequence input, final int start, final int length) {
+    int result = 0;
+    for (int i = start; i < start + length; i++) {
+      result = result * 10 + input.charAt(i) - '0';
+    }
+    return result;
+  }
+
+  static int epochDay(final int year, final int month, final int day) {
+    if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+      return NO_DATE;
+    }
+    return (int) LocalDate.of(year, month, day).toEpochDay();
+  }
+
+  /**
+   * @return The minute of day of the time that starts at the given position, or -1 if the time does not exist.
+   */
+  static int minuteOfDay(final CharSequence input, final int start) {
+    return minuteOfDay(input.charAt(start), input.charAt(start + 1), input.charAt(start + 3), input.charAt(start + 4));
+  }
+
+  static int minuteOfDay(final int hourTens, final int hourOnes, final int minuteTens, final int minuteOnes) {
+    final int hour = (hourTens - '0') * 10 + hourOnes - '0';
+    final int minute = (minuteTens - '0') * 10 + minuteOnes - '0';
+    if (hour > 23 || minute > 59) {
+      return -1;
+    }
+    return hour * 60 + minute;
+  }
+
+  static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * The white space characters of a regular expression {@code \s}.
+   */
+  static boolean isWhiteSpace(final char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * The characters that a regular expression {@code .} does not match.
+   */
+  static boolean isLineTerminator(final char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
 }
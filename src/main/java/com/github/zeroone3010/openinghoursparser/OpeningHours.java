@@ -1,15 +1,25 @@
 package com.github.zeroone3010.openinghoursparser;
 
-import java.time.DayOfWeek;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class OpeningHours {
   private final Parser parser;
-  private final LocalizedTokens localizedTokens;
+  private final boolean defaultGrammar;
+  private final Lexer lexer;
+  private final ParseCache cache;
+  private final ScheduleInterner interner;
+  private final ParseListener listener;
+  private volatile Optional<Recognizer> recognizer;
 
   /**
    * Initializes an OpeningHours parser with the {@link Grammars#defaultGrammar()} and English day names.
@@ -21,10 +31,102 @@ public class OpeningHours {
 
   /**
    * Initializes an OpeningHours parser with the given grammar and day names in the given {@link java.util.Locale}.
+   * The parsing table and the day names are built once per grammar and locale, and shared between instances.
    */
   public OpeningHours(final List<Rule> grammar, final Locale locale) {
-    parser = new Parser(grammar);
-    localizedTokens = new LocalizedTokens(locale);
+    this(grammar, Collections.singletonList(locale));
+  }
+
+  /**
+   * Initializes an OpeningHours parser with the given grammar that accepts day names in any of the given locales, in
+   * one pass over the input. If a name means a different day in two of the locales, the one that comes first wins.
+   * The locale of the day names of each input is reported by {@link ParseResult#getLocale()}.
+   */
+  public OpeningHours(final List<Rule> grammar, final List<Locale> locales) {
+    parser = Registry.parser(grammar);
+    defaultGrammar = grammar.equals(Grammars.defaultGrammar());
+    lexer = Registry.lexer(locales);
+    cache = null;
+    interner = null;
+    listener = null;
+  }
+
+  private OpeningHours(final OpeningHours template, final ParseCache cache, final ScheduleInterner interner,
+                       final ParseListener listener) {
+    this.parser = template.parser;
+    this.defaultGrammar = template.defaultGrammar;
+    this.lexer = template.lexer;
+    this.cache = cache;
+    this.interner = interner;
+    this.listener = listener;
+    this.recognizer = template.recognizer;
+  }
+
+  /**
+   * @return A shared OpeningHours parser with the {@link Grammars#defaultGrammar()} and day names in the given locale.
+   */
+  public static OpeningHours of(final Locale locale) {
+    return of(Grammars.defaultGrammar(), locale);
+  }
+
+  /**
+   * Returns a shared OpeningHours parser with the given grammar and day names in the given locale. The parser is
+   * built on first request and handed out to every later caller, from any thread.
+   */
+  public static OpeningHours of(final List<Rule> grammar, final Locale locale) {
+    return Registry.openingHours(grammar, Collections.singletonList(locale));
+  }
+
+  /**
+   * Like {@link #of(List, Locale)}, for a parser that accepts day names in any of the given locales.
+   */
+  public static OpeningHours of(final List<Rule> grammar, final List<Locale> locales) {
+    return Registry.openingHours(grammar, locales);
+  }
+
+  /**
+   * Builds the shared parsers of the given grammar and locales ahead of time, so that the first requests to
+   * {@link #of(List, Locale)} do not have to wait for them.
+   */
+  public static void warmUp(final List<Rule> grammar, final Locale... locales) {
+    for (final Locale locale : locales) {
+      of(grammar, locale);
+    }
+  }
+
+  /**
+   * Creates an OpeningHours parser with the same grammar and day names as this one, whose {@link #parse(CharSequence)}
+   * method caches its results. It is meant to be shared by all threads that parse the same kind of input.
+   *
+   * @param maximumSize The number of results to cache, after which the least recently used ones are evicted.
+   * @return A new OpeningHours parser with a {@link ParseCache} of its own.
+   */
+  public OpeningHours withCache(final int maximumSize) {
+    return new OpeningHours(this, new ParseCache(maximumSize), interner, listener);
+  }
+
+  /**
+   * Creates an OpeningHours parser with the same grammar and day names as this one, which hands out the canonical
+   * instance of each distinct {@link WeeklySchedule} from the given interner. If this parser caches its results, the
+   * new one gets an empty {@link ParseCache} of the same size, as the cached schedules did not come from the interner.
+   */
+  public OpeningHours withInterner(final ScheduleInterner interner) {
+    return new OpeningHours(this, cache == null ? null : new ParseCache(cache.getMaximumSize()), interner, listener);
+  }
+
+  /**
+   * Creates an OpeningHours parser with the same grammar, day names, cache and interner as this one, which reports
+   * the timings and failures of its work to the given listener, such as a {@link ParseMetrics}.
+   */
+  public OpeningHours withListener(final ParseListener listener) {
+    return new OpeningHours(this, cache, interner, listener);
+  }
+
+  /**
+   * @return The cache of {@link #parse(CharSequence)} results with its statistics, or null if results are not cached.
+   */
+  public ParseCache getCache() {
+    return cache;
   }
 
   /**
@@ -35,20 +137,12 @@ public class OpeningHours {
    * @return A List of typed {@link Token}s, such as "Mon", "-", "Fri" "08:00", "-", "20:00", ",", etc.
    */
   public List<Token> tokenize(final String input) {
-    System.out.println("Input: '" + input + "'");
-    final List<Token> tokens = new ArrayList<>();
-    int startingPosition = 0;
-    for (int i = 1; i <= input.length(); i++) {
-      final String candidate = input.substring(startingPosition, i);
-      final Optional<Token> optionalToken = localizedTokens.match(candidate);
-      if (optionalToken.isPresent()) {
-        tokens.add(optionalToken.get());
-        startingPosition = i;
-      } else if (i == input.length()) {
-        tokens.add(new Token(TokenType.UNKNOWN, candidate));
-      }
+    if (listener == null) {
+      return lexer.tokenize(input);
     }
-    tokens.removeIf(token -> token.getType().equals(TokenType.WHITE_SPACE));
+    final long start = System.nanoTime();
+    final List<Token> tokens = lexer.tokenize(input);
+    listener.phaseCompleted(ParseListener.Phase.TOKENIZE, input.length(), System.nanoTime() - start);
     return tokens;
   }
 
@@ -60,45 +154,239 @@ public class OpeningHours {
    * represents a proper opening hours definition.
    */
   public ValidationResult validate(final List<Token> tokens) {
-    return parser.validate(tokens);
+    if (listener == null) {
+      return parser.validate(tokens);
+    }
+    final long start = System.nanoTime();
+    final ValidationResult result = parser.validate(tokens);
+    final long nanos = System.nanoTime() - start;
+    if (!result.isValid()) {
+      listener.failed(ParseListener.Phase.VALIDATE, tokens.stream().anyMatch(token -> token.getType().isUnknown())
+          ? ParseListener.Failure.UNKNOWN_TOKEN : ParseListener.Failure.GRAMMAR_MISMATCH);
+    }
+    listener.phaseCompleted(ParseListener.Phase.VALIDATE, tokens.size(), nanos);
+    return result;
   }
 
   /**
    * Convert the List of parsed {@link Token}s into a proper end result, a {@link WeeklySchedule} object.
    * @param tokens List of schedule grammar tokens, as parsed by the {@link #tokenize(String)} method.
    * @return A {@link WeeklySchedule} object, with the data of the given tokens in an accessible form.
+   * @throws DateTimeException If the tokens contain a time or a date that does not exist, such as "25:00" or
+   * "2026-02-30".
    */
   public WeeklySchedule compile(final List<Token> tokens) {
-    final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+    if (listener == null) {
+      return compileTokens(tokens);
+    }
+    final long start = System.nanoTime();
+    try {
+      return compileTokens(tokens);
+    } catch (final DateTimeException e) {
+      listener.failed(ParseListener.Phase.COMPILE, ParseListener.Failure.INVALID_TIME);
+      throw e;
+    } finally {
+      listener.phaseCompleted(ParseListener.Phase.COMPILE, tokens.size(), System.nanoTime() - start);
+    }
+  }
 
-    DayOfWeek dayOfWeekRangeStart = null;
-    DayOfWeek dayOfWeekRangeEnd = null;
-    LocalTime timeRangeStart = null;
+  private WeeklySchedule compileTokens(final List<Token> tokens) {
+    final ScheduleCompiler compiler = new ScheduleCompiler();
     for (final Token token : tokens) {
-      if (token.getType().isWeekday()) {
-        if (dayOfWeekRangeStart == null) {
-          dayOfWeekRangeStart = token.getType().asDayOfWeek();
-          dayOfWeekRangeEnd = token.getType().asDayOfWeek();
-        } else {
-          dayOfWeekRangeEnd = token.getType().asDayOfWeek();
-        }
-      } else if (token.getType().equals(TokenType.TIME)) {
-        if (timeRangeStart == null) {
-          timeRangeStart = LocalTime.parse(token.getValue());
-        } else {
-          final LocalTime timeRangeEnd = LocalTime.parse(token.getValue());
-
-          for (int i = dayOfWeekRangeStart.getValue(); i <= dayOfWeekRangeEnd.getValue(); i++) {
-            builder.add(DayOfWeek.of(i), new DailySchedule(timeRangeStart, timeRangeEnd));
-          }
-
-          dayOfWeekRangeStart = null;
-          dayOfWeekRangeEnd = null;
-          timeRangeStart = null;
-        }
+      compiler.accept(token.getType(), token.getValue(), 0);
+    }
+    if (compiler.getFailure() != null) {
+      throw new DateTimeException(compiler.getFailure());
+    }
+    return build(compiler);
+  }
+
+  /**
+   * Tokenizes, validates and compiles the given input in one pass, without building a List of {@link Token}s.
+   * The result is the same as that of calling {@link #tokenize(String)}, {@link #validate(List)} and
+   * {@link #compile(List)} in turn, except that a time or a date that does not exist makes the input invalid.
+   *
+   * @param input Opening times, such as "Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00".
+   * @return A {@link ParseResult} with either the {@link WeeklySchedule} or the reason why the input is invalid.
+   */
+  public ParseResult parse(final CharSequence input) {
+    if (cache != null) {
+      return cache.get(input.toString(), this::parseUncached);
+    }
+    return parseUncached(input);
+  }
+
+  /**
+   * Like {@link #parse(CharSequence)}, for opening hours encoded in UTF-8 between the position and the limit of the
+   * given buffer. The bytes are scanned without decoding them first, and the position of the buffer is left
+   * unchanged. With a cache, the bytes are decoded into a String for its key.
+   */
+  public ParseResult parse(final ByteBuffer utf8) {
+    if (cache != null) {
+      return parse(StandardCharsets.UTF_8.decode(utf8.duplicate()));
+    }
+    return parse(lexer.cursor(utf8));
+  }
+
+  /**
+   * Like {@link #parse(ByteBuffer)}, for the given number of UTF-8 bytes starting at the given offset of the array.
+   */
+  public ParseResult parse(final byte[] utf8, final int offset, final int length) {
+    return parse(ByteBuffer.wrap(utf8, offset, length));
+  }
+
+  private ParseResult parseUncached(final CharSequence input) {
+    return parse(lexer.cursor(input));
+  }
+
+  private ParseResult parse(final Lexer.Cursor cursor) {
+    if (listener == null) {
+      return parseTokens(cursor);
+    }
+    final long start = System.nanoTime();
+    final ParseResult result = parseTokens(cursor);
+    listener.phaseCompleted(ParseListener.Phase.PARSE, cursor.length(), System.nanoTime() - start);
+    return result;
+  }
+
+  private ParseResult parseTokens(final Lexer.Cursor cursor) {
+    final ScheduleCompiler compiler = new ScheduleCompiler();
+    if (!cursor.next()) {
+      return ParseResult.of(build(compiler), null);
+    }
+    final boolean valid = defaultGrammar
+        ? DefaultGrammarParser.parse(cursor, compiler) : parseWithTable(cursor, compiler);
+    if (!valid) {
+      if (!cursor.ended() && (cursor.type().isUnknown() || skipToUnknownToken(cursor))) {
+        return failure(ParseListener.Failure.UNKNOWN_TOKEN,
+            new ValidationResult(false, "Unknown token '" + cursor.text() + "'"));
       }
+      return failure(ParseListener.Failure.GRAMMAR_MISMATCH, new ValidationResult(false));
+    }
+    if (compiler.getFailure() != null) {
+      return failure(ParseListener.Failure.INVALID_TIME, new ValidationResult(false, compiler.getFailure()));
     }
-    return builder.build();
+    return ParseResult.of(build(compiler), lexer.locale(compiler.getLocales()));
+  }
+
+  private ParseResult failure(final ParseListener.Failure reason, final ValidationResult result) {
+    if (listener != null) {
+      listener.failed(ParseListener.Phase.PARSE, reason);
+    }
+    return ParseResult.invalid(result);
+  }
+
+  /**
+   * Feeds the tokens of the cursor through the parsing table of the grammar, like the generated
+   * {@link DefaultGrammarParser} does for the default grammar.
+   *
+   * @return false if the tokens are not valid. The cursor is then at the token that was rejected, or has ended.
+   */
+  private boolean parseWithTable(final Lexer.Cursor cursor, final ScheduleCompiler compiler) {
+    final Parser.Run run = parser.start();
+    do {
+      if (cursor.type().isUnknown() || !run.accept(cursor.type())) {
+        return false;
+      }
+      compiler.accept(cursor);
+    } while (cursor.next());
+    return run.finish();
+  }
+
+  /**
+   * Tells whether the input is valid, without building a schedule. This gives the same answer as validating the
+   * tokens of the input, so a time or a date that does not exist, such as "25:00", is not detected.
+   */
+  public boolean isValid(final CharSequence input) {
+    return findInvalidOffset(input) < 0;
+  }
+
+  /**
+   * Finds where the input stops being valid, like {@link #isValid(CharSequence)}. If the grammar describes a
+   * regular language, as the default grammar does, this runs over the characters of the input once without
+   * allocating anything; otherwise it falls back to the tokens and the parsing table of the grammar.
+   *
+   * @return The offset of the first character of the token that is unknown or unexpected, the length of the input
+   * if it ends too early, or -1 if the input is valid.
+   */
+  public int findInvalidOffset(final CharSequence input) {
+    if (listener == null) {
+      return findInvalid(input);
+    }
+    final long start = System.nanoTime();
+    final int offset = findInvalid(input);
+    final long nanos = System.nanoTime() - start;
+    if (offset >= 0) {
+      final Lexer.Cursor cursor = lexer.cursor(input.subSequence(offset, input.length()));
+      listener.failed(ParseListener.Phase.RECOGNIZE, cursor.next() && cursor.type().isUnknown()
+          ? ParseListener.Failure.UNKNOWN_TOKEN : ParseListener.Failure.GRAMMAR_MISMATCH);
+    }
+    listener.phaseCompleted(ParseListener.Phase.RECOGNIZE, input.length(), nanos);
+    return offset;
+  }
+
+  private int findInvalid(final CharSequence input) {
+    Optional<Recognizer> recognizer = this.recognizer;
+    if (recognizer == null) {
+      recognizer = Optional.ofNullable(Recognizer.compile(parser, lexer));
+      this.recognizer = recognizer;
+    }
+    if (recognizer.isPresent()) {
+      return recognizer.get().findInvalidOffset(input);
+    }
+    final Lexer.Cursor cursor = lexer.cursor(input);
+    if (!cursor.next()) {
+      return -1;
+    }
+    final Parser.Run run = parser.start();
+    do {
+      if (cursor.type().isUnknown() || !run.accept(cursor.type())) {
+        return cursor.start();
+      }
+    } while (cursor.next());
+    return run.finish() ? -1 : input.length();
+  }
+
+  private WeeklySchedule build(final ScheduleCompiler compiler) {
+    final WeeklySchedule schedule = compiler.build();
+    return interner != null ? interner.intern(schedule) : schedule;
+  }
+
+  /**
+   * Parses many inputs in parallel on the common {@link ForkJoinPool}, as if each was given to
+   * {@link #parse(CharSequence)}. An input that fails does not stop the others.
+   *
+   * @param inputs Opening times, one per place.
+   * @return The results in the order of the inputs, along with the failures and their indices.
+   */
+  public BatchResult parseAll(final List<? extends CharSequence> inputs) {
+    return new BatchParser(this, inputs).parse(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Like {@link #parseAll(List)}, but runs the work on the given executor, split into slices for the given number
+   * of threads.
+   */
+  public BatchResult parseAll(final List<? extends CharSequence> inputs, final Executor executor, final int parallelism) {
+    return new BatchParser(this, inputs).parse(executor, parallelism);
   }
-}
 
+  /**
+   * Like {@link #parseAll(List)}, for inputs that come as a Stream. The stream is consumed before parsing begins.
+   */
+  public BatchResult parseAll(final Stream<? extends CharSequence> inputs) {
+    return parseAll(inputs.collect(Collectors.toList()));
+  }
+
+  /**
+   * An unknown token anywhere in the input takes precedence over a grammar error, just like in {@link Parser}.
+   */
+  private static boolean skipToUnknownToken(final Lexer.Cursor cursor) {
+    while (cursor.next()) {
+      if (cursor.type().isUnknown()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
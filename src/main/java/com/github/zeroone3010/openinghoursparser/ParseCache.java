@@ -0,0 +1,120 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache from input strings to {@link ParseResult}s, for inputs that repeat a lot. Both valid and invalid
+ * results are cached.
+ *
+ * The cache is split into segments that each evict their least recently used entry once full, and that are locked
+ * separately, so that threads which look up different inputs rarely wait for each other. Parsing happens outside
+ * of the locks.
+ */
+public final class ParseCache {
+  private static final int MAX_SEGMENTS = 16;
+
+  private final Segment[] segments;
+  private final int maximumSize;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param maximumSize The number of results that the cache can hold.
+   */
+  ParseCache(final int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("The maximum size of a cache must be positive, was " + maximumSize);
+    }
+    int segmentCount = 1;
+    while (segmentCount < MAX_SEGMENTS && segmentCount * 2 <= maximumSize) {
+      segmentCount *= 2;
+    }
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  ParseResult get(final String input, final Function<String, ParseResult> parser) {
+    final Segment segment = segmentFor(input);
+    ParseResult result;
+    synchronized (segment) {
+      result = segment.get(input);
+    }
+    if (result != null) {
+      hits.increment();
+      return result;
+    }
+    misses.increment();
+    result = parser.apply(input);
+    synchronized (segment) {
+      final ParseResult concurrentResult = segment.putIfAbsent(input, result);
+      return concurrentResult != null ? concurrentResult : result;
+    }
+  }
+
+  private Segment segmentFor(final String input) {
+    final int hash = input.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * @return The number of results in the cache at the moment.
+   */
+  public int size() {
+    int size = 0;
+    for (final Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "ParseCache{size=" + size() + "/" + maximumSize + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+        + ", evictions=" + getEvictionCount() + '}';
+  }
+
+  private final class Segment extends LinkedHashMap<String, ParseResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    private Segment(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, ParseResult> eldest) {
+      if (size() > capacity) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
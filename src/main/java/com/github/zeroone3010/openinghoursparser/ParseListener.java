@@ -0,0 +1,73 @@
+package com.github.zeroone3010.openinghoursparser;
+
+/**
+ * Receives the timings and failures of the work done by an {@link OpeningHours} parser, as installed with
+ * {@link OpeningHours#withListener(ParseListener)}. A parser without a listener does not read the clock at all.
+ *
+ * The methods are called on the parsing thread, so they should be quick and, if the parser is shared, thread safe.
+ * {@link ParseMetrics} is a ready-made listener that sums everything up.
+ */
+public interface ParseListener {
+  /**
+   * The kinds of work that are timed.
+   */
+  enum Phase {
+    /**
+     * {@link OpeningHours#tokenize(String)}.
+     */
+    TOKENIZE,
+    /**
+     * {@link OpeningHours#validate(java.util.List)}.
+     */
+    VALIDATE,
+    /**
+     * {@link OpeningHours#compile(java.util.List)}.
+     */
+    COMPILE,
+    /**
+     * One of the {@code parse} methods, which tokenize, validate and compile in one pass that cannot be split into
+     * the other phases. Results taken from a {@link ParseCache} are not parsed again, and not reported.
+     */
+    PARSE,
+    /**
+     * {@link OpeningHours#isValid(CharSequence)} and {@link OpeningHours#findInvalidOffset(CharSequence)}, which
+     * validate an input without tokenizing or compiling it.
+     */
+    RECOGNIZE
+  }
+
+  /**
+   * The reasons why an input is invalid.
+   */
+  enum Failure {
+    /**
+     * The input contains something that is not a token.
+     */
+    UNKNOWN_TOKEN,
+    /**
+     * The tokens are not in an order that the grammar allows.
+     */
+    GRAMMAR_MISMATCH,
+    /**
+     * The input contains a time or a date that does not exist, such as "25:00" or "2026-02-30", or a range of dates
+     * that ends before it starts.
+     */
+    INVALID_TIME
+  }
+
+  /**
+   * @param phase  The phase that has been completed, successfully or not.
+   * @param length The length of the input of the phase: characters, or bytes of UTF-8, for {@link Phase#TOKENIZE},
+   *               {@link Phase#PARSE} and {@link Phase#RECOGNIZE}, and tokens for {@link Phase#VALIDATE} and
+   *               {@link Phase#COMPILE}.
+   * @param nanos  The time that the phase took, in nanoseconds.
+   */
+  default void phaseCompleted(final Phase phase, final int length, final long nanos) {
+  }
+
+  /**
+   * Called before {@link #phaseCompleted(Phase, int, long)} when a phase finds its input invalid.
+   */
+  default void failed(final Phase phase, final Failure reason) {
+  }
+}
@@ -0,0 +1,187 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ParseListener} that counts the phases, their total time and the failures, and keeps a histogram of the
+ * lengths of the inputs. It can be shared by any number of parsers and threads. Use {@link #asMXBean()} to expose
+ * the numbers over JMX.
+ */
+public final class ParseMetrics implements ParseListener {
+  private static final int HISTOGRAM_BUCKETS = Integer.SIZE + 1;
+
+  private final LongAdder[] counts = adders(Phase.values().length);
+  private final LongAdder[] nanos = adders(Phase.values().length);
+  private final LongAdder[] failures = adders(Failure.values().length);
+  private final LongAdder[] lengths = adders(HISTOGRAM_BUCKETS);
+
+  @Override
+  public void phaseCompleted(final Phase phase, final int length, final long nanos) {
+    counts[phase.ordinal()].increment();
+    this.nanos[phase.ordinal()].add(nanos);
+    if (phase == Phase.TOKENIZE || phase == Phase.PARSE || phase == Phase.RECOGNIZE) {
+      lengths[Integer.SIZE - Integer.numberOfLeadingZeros(length)].increment();
+    }
+  }
+
+  @Override
+  public void failed(final Phase phase, final Failure reason) {
+    failures[reason.ordinal()].increment();
+  }
+
+  /**
+   * @return The number of times that the phase has been completed.
+   */
+  public long getCount(final Phase phase) {
+    return counts[phase.ordinal()].sum();
+  }
+
+  /**
+   * @return The total time of the phase, in nanoseconds.
+   */
+  public long getNanos(final Phase phase) {
+    return nanos[phase.ordinal()].sum();
+  }
+
+  /**
+   * @return The number of inputs found invalid for the reason, in any phase.
+   */
+  public long getFailures(final Failure reason) {
+    return failures[reason.ordinal()].sum();
+  }
+
+  /**
+   * Counts the lengths of the inputs that were tokenized or parsed. Bucket 0 holds the empty inputs, and bucket n
+   * the inputs of at least 2<sup>n-1</sup> and less than 2<sup>n</sup> characters or bytes.
+   *
+   * @return The counts of the buckets, up to the last bucket that is not empty.
+   */
+  public long[] getInputLengthHistogram() {
+    final long[] histogram = new long[HISTOGRAM_BUCKETS];
+    int size = 0;
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = lengths[i].sum();
+      if (histogram[i] > 0) {
+        size = i + 1;
+      }
+    }
+    return Arrays.copyOf(histogram, size);
+  }
+
+  /**
+   * Sets everything back to zero. Phases that are completed at the same time may or may not be counted.
+   */
+  public void reset() {
+    for (final LongAdder[] adders : new LongAdder[][]{counts, nanos, failures, lengths}) {
+      for (final LongAdder adder : adders) {
+        adder.reset();
+      }
+    }
+  }
+
+  /**
+   * @return A view of these metrics that can be registered in an MBean server.
+   */
+  public ParseMetricsMXBean asMXBean() {
+    return new MXBean();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("ParseMetrics{");
+    for (final Phase phase : Phase.values()) {
+      builder.append(phase).append('=').append(getCount(phase)).append('/').append(getNanos(phase)).append("ns, ");
+    }
+    for (final Failure reason : Failure.values()) {
+      builder.append(reason).append('=').append(getFailures(reason)).append(", ");
+    }
+    return builder.append("lengths=").append(Arrays.toString(getInputLengthHistogram())).append('}')
+        .toString();
+  }
+
+  private static LongAdder[] adders(final int count) {
+    final LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  private final class MXBean implements ParseMetricsMXBean {
+    @Override
+    public long getTokenizeCount() {
+      return getCount(Phase.TOKENIZE);
+    }
+
+    @Override
+    public long getTokenizeNanos() {
+      return getNanos(Phase.TOKENIZE);
+    }
+
+    @Override
+    public long getValidateCount() {
+      return getCount(Phase.VALIDATE);
+    }
+
+    @Override
+    public long getValidateNanos() {
+      return getNanos(Phase.VALIDATE);
+    }
+
+    @Override
+    public long getCompileCount() {
+      return getCount(Phase.COMPILE);
+    }
+
+    @Override
+    public long getCompileNanos() {
+      return getNanos(Phase.COMPILE);
+    }
+
+    @Override
+    public long getParseCount() {
+      return getCount(Phase.PARSE);
+    }
+
+    @Override
+    public long getParseNanos() {
+      return getNanos(Phase.PARSE);
+    }
+
+    @Override
+    public long getRecognizeCount() {
+      return getCount(Phase.RECOGNIZE);
+    }
+
+    @Override
+    public long getRecognizeNanos() {
+      return getNanos(Phase.RECOGNIZE);
+    }
+
+    @Override
+    public long getUnknownTokenFailures() {
+      return getFailures(Failure.UNKNOWN_TOKEN);
+    }
+
+    @Override
+    public long getGrammarMismatchFailures() {
+      return getFailures(Failure.GRAMMAR_MISMATCH);
+    }
+
+    @Override
+    public long getInvalidTimeFailures() {
+      return getFailures(Failure.INVALID_TIME);
+    }
+
+    @Override
+    public long[] getInputLengthHistogram() {
+      return ParseMetrics.this.getInputLengthHistogram();
+    }
+
+    @Override
+    public void reset() {
+      ParseMetrics.this.reset();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.zeroone3010.openinghoursparser;
+
+/**
+ * The management interface of {@link ParseMetrics}, for registering them in an MBean server:
+ * {@code server.registerMBean(metrics.asMXBean(), new ObjectName("com.example:type=ParseMetrics"))}.
+ * The times are in nanoseconds.
+ */
+public interface ParseMetricsMXBean {
+  long getTokenizeCount();
+
+  long getTokenizeNanos();
+
+  long getValidateCount();
+
+  long getValidateNanos();
+
+  long getCompileCount();
+
+  long getCompileNanos();
+
+  long getParseCount();
+
+  long getParseNanos();
+
+  long getRecognizeCount();
+
+  long getRecognizeNanos();
+
+  long getUnknownTokenFailures();
+
+  long getGrammarMismatchFailures();
+
+  long getInvalidTimeFailures();
+
+  /**
+   * @return The input lengths in buckets of powers of two, as in {@link ParseMetrics#getInputLengthHistogram()}.
+   */
+  long[] getInputLengthHistogram();
+
+  void reset();
+}
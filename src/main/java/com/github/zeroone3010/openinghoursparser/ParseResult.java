@@ -0,0 +1,65 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.Locale;
+
+/**
+ * The outcome of {@link OpeningHours#parse(CharSequence)}: either a {@link WeeklySchedule}, or a
+ * {@link ValidationResult} that tells why the input could not be parsed.
+ */
+public final class ParseResult {
+  private static final ValidationResult VALID = new ValidationResult(true);
+
+  private final WeeklySchedule schedule;
+  private final ValidationResult validationResult;
+  private final Locale locale;
+
+  private ParseResult(final WeeklySchedule schedule, final ValidationResult validationResult, final Locale locale) {
+    this.schedule = schedule;
+    this.validationResult = validationResult;
+    this.locale = locale;
+  }
+
+  static ParseResult of(final WeeklySchedule schedule, final Locale locale) {
+    return new ParseResult(schedule, VALID, locale);
+  }
+
+  static ParseResult invalid(final ValidationResult validationResult) {
+    return new ParseResult(null, validationResult, null);
+  }
+
+  /**
+   * Turns an unexpected exception from parsing one of many inputs into an invalid result, so that the failure of
+   * one input does not abort the others, as in a batch or a file.
+   */
+  static ParseResult failed(final RuntimeException exception) {
+    return invalid(new ValidationResult(false, exception.toString()));
+  }
+
+  public boolean isValid() {
+    return schedule != null;
+  }
+
+  /**
+   * @return The parsed schedule, or null if the input was not valid.
+   */
+  public WeeklySchedule getSchedule() {
+    return schedule;
+  }
+
+  public ValidationResult getValidationResult() {
+    return validationResult;
+  }
+
+  /**
+   * @return The first of the parser's locales in which all day names of the input mean the days they were read as.
+   * If the input mixes locales, the locale of its first day name. Null if the input was not valid or named no days.
+   */
+  public Locale getLocale() {
+    return locale;
+  }
+
+  @Override
+  public String toString() {
+    return "ParseResult{" + (schedule != null ? schedule : validationResult) + '}';
+  }
+}
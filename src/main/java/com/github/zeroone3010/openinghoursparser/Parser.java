@@ -1,214 +1,247 @@
 package com.github.zeroone3010.openinghoursparser;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.Stack;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static java.util.Collections.singleton;
-import static java.util.Collections.singletonList;
-import static java.util.stream.Collectors.toList;
 
 /**
  * A top-down LL(1) parser for an opening times grammar.
  */
 final class Parser {
-  private final Map<TokenType, Map<TokenType, Rule>> parsingTable;
-  private final Map<TokenType, Set<TokenType>> firsts;
-  private final Map<TokenType, Set<TokenType>> follows;
-  private final Map<Rule, Set<TokenType>> ruleFirsts;
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+  private static final long EMPTY = bit(TokenType.EMPTY);
+
+  private final Rule[][] parsingTable;
 
   public Parser(final List<Rule> grammar) {
-    this.firsts = computeTokenFirsts(grammar);
-    this.ruleFirsts = computeTokenStringFirsts(grammar);
-    this.follows = computeFollows(grammar);
-    this.parsingTable = computeParsingTable(grammar);
+    final long[] firsts = computeTokenFirsts(grammar);
+    final long[][] suffixFirsts = computeSuffixFirsts(grammar, firsts);
+    final long[] follows = computeFollows(grammar, suffixFirsts);
+    this.parsingTable = computeParsingTable(grammar, suffixFirsts, follows);
   }
 
   public ValidationResult validate(final List<Token> tokens) {
-    final List<TokenType> input = tokens.stream().map(Token::getType).collect(Collectors.toList());
-    if (input.isEmpty()) {
+    if (tokens.isEmpty()) {
       return new ValidationResult(true);
     }
-    final Optional<Token> unknownTokem = tokens.stream().filter(t -> t.getType().isUnknown()).findFirst();
+    for (int i = 0; i < tokens.size(); i++) {
+      final Token token = tokens.get(i);
+      if (token.getType().isUnknown()) {
+        return new ValidationResult(false, "Unknown token '" + token.getValue() + "'");
+      }
+    }
 
-    if (unknownTokem.isPresent()) {
-      return new ValidationResult(false, "Unknown token '" + unknownTokem.get().getValue() + "'");
+    final Run run = start();
+    for (int i = 0; i < tokens.size(); i++) {
+      final TokenType nextInput = tokens.get(i).getType();
+      if (nextInput.isEndOfInput()) {
+        break;
+      }
+      if (!run.accept(nextInput)) {
+        return new ValidationResult(false);
+      }
     }
+    return new ValidationResult(run.finish());
+  }
+
+  /**
+   * @return The rule that the parsing table expands the nonterminal with when the next terminal is the given one,
+   * or null if the input is invalid then.
+   */
+  Rule rule(final TokenType nonTerminal, final TokenType lookahead) {
+    return parsingTable[nonTerminal.ordinal()][lookahead.ordinal()];
+  }
+
+  /**
+   * Starts a step-by-step validation, to which the terminal tokens of an input are fed one at a time.
+   */
+  Run start() {
+    return new Run();
+  }
+
+  /**
+   * A validation of one input that is in progress. Unlike {@link #validate(List)}, it does not look for unknown
+   * tokens; the caller is expected to handle them before feeding them. The stack holds the ordinals of the
+   * expected {@link TokenType}s.
+   */
+  final class Run {
+    private int[] stack = new int[16];
+    private int size;
 
-    if (!input.get(input.size() - 1).isEndOfInput()) {
-      input.add(TokenType.END_OF_INPUT);
+    private Run() {
+      stack[size++] = TokenType.END_OF_INPUT.ordinal();
+      stack[size++] = TokenType.getStartSymbol().ordinal();
     }
-    final Stack<TokenType> stack = new Stack<>();
-    stack.push(TokenType.END_OF_INPUT);
-    stack.push(TokenType.getStartSymbol());
-    do {
-      final TokenType top = TokenType.class.cast(stack.peek());
-      final TokenType nextInput = input.get(0);
-      if (Objects.equals(top, nextInput)) {
-        if (Objects.equals(top, TokenType.END_OF_INPUT)) {
-          return new ValidationResult(true);
-        }
-        stack.pop();
-        input.remove(0);
-        continue;
-      } else if (!top.isTerminal()) {
-        stack.pop();
-        final Rule parsingTableValue = getValue(top, nextInput);
-        if (parsingTableValue == null) {
-          return new ValidationResult(false);
+
+    /**
+     * @param terminal The next terminal token of the input.
+     * @return false if the input can no longer be valid.
+     */
+    boolean accept(final TokenType terminal) {
+      final int nextInput = terminal.ordinal();
+      do {
+        if (size == 0) {
+          return false;
         }
-        final List<TokenType> parsingTableTokens = parsingTableValue.getRight();
-        if (singletonList(TokenType.EMPTY).equals(parsingTableTokens)) {
-          continue;
+        final int top = stack[size - 1];
+        if (top == nextInput) {
+          size--;
+          return true;
+        } else if (TOKEN_TYPES[top].isTerminal()) {
+          return false;
         }
-        for (int i = parsingTableTokens.size(); i > 0; i--) {
-          stack.push(parsingTableTokens.get(i - 1));
+        size--;
+        final Rule parsingTableValue = parsingTable[top][nextInput];
+        if (parsingTableValue == null) {
+          return false;
         }
-      } else {
-        return new ValidationResult(false);
-      }
-    } while (true);
-  }
+        push(parsingTableValue.expansion);
+      } while (true);
+    }
 
+    /**
+     * @return A run in the same state as this one, which goes on independently.
+     */
+    Run copy() {
+      final Run copy = new Run();
+      copy.stack = Arrays.copyOf(stack, stack.length);
+      copy.size = size;
+      return copy;
+    }
 
-  private Rule getValue(final TokenType nonTerminal, final TokenType terminal) {
-    if (nonTerminal.isTerminal()) {
-      throw new IllegalArgumentException(nonTerminal + " is not a nonterminal token");
+    /**
+     * @return The symbols that are still expected, as ordinals from the bottom of the stack to the top.
+     */
+    int[] expected() {
+      return Arrays.copyOf(stack, size);
     }
-    if (!terminal.isTerminal()) {
-      throw new IllegalArgumentException(terminal + " is not a terminal token");
+
+    /**
+     * @return true if the terminals fed so far form a valid input.
+     */
+    boolean finish() {
+      return accept(TokenType.END_OF_INPUT);
+    }
+
+    private void push(final int[] expansion) {
+      if (size + expansion.length > stack.length) {
+        stack = Arrays.copyOf(stack, Math.max(stack.length * 2, size + expansion.length));
+      }
+      System.arraycopy(expansion, 0, stack, size, expansion.length);
+      size += expansion.length;
     }
-    return parsingTable.get(nonTerminal).get(terminal);
   }
 
-  private Map<TokenType, Map<TokenType, Rule>> computeParsingTable(final List<Rule> grammar) {
-    final Map<TokenType, Map<TokenType, Rule>> nonterminalToTerminalToRule = new HashMap<>();
-    for (final Rule rule : grammar) {
-      final Set<TokenType> firsts = this.ruleFirsts.get(rule);
-      final Set<TokenType> firstsWithoutEmpty = new HashSet<>(firsts);
-      final boolean hasEmpty = firstsWithoutEmpty.remove(TokenType.EMPTY);
-      for (final TokenType first : firstsWithoutEmpty) {
-        final Map<TokenType, Rule> terminals = nonterminalToTerminalToRule.getOrDefault(rule.getLeft(), new HashMap<>());
-        final Rule putResult = terminals.put(first, rule);
-        if (putResult != null) {
+  /**
+   * Compiles the parsing table into a dense array that is indexed by the ordinals of a nonterminal and a terminal.
+   * A conflict between two FIRST sets makes the grammar not LL(1); FOLLOW entries of ε-rules overwrite silently.
+   */
+  private static Rule[][] computeParsingTable(final List<Rule> grammar, final long[][] suffixFirsts,
+                                              final long[] follows) {
+    final Rule[][] nonterminalToTerminalToRule = new Rule[TOKEN_TYPES.length][TOKEN_TYPES.length];
+    for (int r = 0; r < grammar.size(); r++) {
+      final Rule rule = grammar.get(r);
+      final Rule[] terminals = nonterminalToTerminalToRule[rule.getLeft().ordinal()];
+      final long firsts = suffixFirsts[r][0];
+      for (long set = firsts & ~EMPTY; set != 0; set &= set - 1) {
+        final int first = Long.numberOfTrailingZeros(set);
+        if (terminals[first] != null) {
           throw new IllegalStateException("The given grammar is not LL(1).");
         }
-        nonterminalToTerminalToRule.put(rule.getLeft(), terminals);
+        terminals[first] = rule;
       }
-      if (hasEmpty) {
-        for (final TokenType follow : follows.get(rule.getLeft())) {
-          final Map<TokenType, Rule> terminals = nonterminalToTerminalToRule.getOrDefault(rule.getLeft(), new HashMap<>());
-          terminals.put(follow, rule);
-          nonterminalToTerminalToRule.put(rule.getLeft(), terminals);
+      if ((firsts & EMPTY) != 0) {
+        for (long set = follows[rule.getLeft().ordinal()]; set != 0; set &= set - 1) {
+          terminals[Long.numberOfTrailingZeros(set)] = rule;
         }
       }
     }
     return nonterminalToTerminalToRule;
   }
 
-  private Map<TokenType, Set<TokenType>> computeTokenFirsts(final List<Rule> grammar) {
-    final Predicate<TokenType> isTerminal = TokenType::isTerminal;
-    final Predicate<TokenType> isNonTerminal = isTerminal.negate();
-    final List<TokenType> terminals = Stream.of(TokenType.values()).filter(isTerminal).collect(toList());
-    final List<TokenType> nonTerminals = Stream.of(TokenType.values()).filter(isNonTerminal).collect(toList());
-
-    final Map<TokenType, Set<TokenType>> firsts = new HashMap<>();
+  /**
+   * @return The FIRST set of each {@link TokenType}, by ordinal, as a bit mask of ordinals.
+   */
+  private static long[] computeTokenFirsts(final List<Rule> grammar) {
+    final long[] firsts = new long[TOKEN_TYPES.length];
 
-    // Initialize terminals as their own firsts:
-    terminals.forEach(terminal -> firsts.put(terminal, singleton(terminal)));
-
-    // Initialize nonterminals to have empty first sets:
-    nonTerminals.forEach(nonTerminal -> firsts.put(nonTerminal, new HashSet<>()));
+    // Terminals are their own firsts, and nonterminals start with empty first sets:
+    for (final TokenType type : TOKEN_TYPES) {
+      if (type.isTerminal()) {
+        firsts[type.ordinal()] = bit(type);
+      }
+    }
 
     boolean changed;
     do {
       changed = false;
       for (final Rule rule : grammar) {
-        final TokenType left = rule.getLeft();
-        final Set<TokenType> currentFirsts = firsts.get(left);
-        boolean hasEmptyPrefix = true;
-        final List<TokenType> right = rule.getRight();
-        for (int i = 0; i < right.size(); i++) {
-          final Set<TokenType> productionFirsts = new HashSet<>(firsts.get(right.get(i)));
-          hasEmptyPrefix = productionFirsts.contains(TokenType.EMPTY);
-          productionFirsts.remove(TokenType.EMPTY);
-          changed |= currentFirsts.addAll(productionFirsts);
-          if (!hasEmptyPrefix) {
-            break;
-          }
-        }
-        if (hasEmptyPrefix) {
-          changed |= currentFirsts.add(TokenType.EMPTY);
-        }
+        final int left = rule.getLeft().ordinal();
+        final long updated = firsts[left] | computeFirsts(firsts, rule.getRight());
+        changed |= updated != firsts[left];
+        firsts[left] = updated;
       }
     } while (changed);
 
     return firsts;
   }
 
-  private Map<Rule, Set<TokenType>> computeTokenStringFirsts(final List<Rule> grammar) {
-    final Map<Rule, Set<TokenType>> results = new HashMap<>();
-    for (final Rule rule : grammar) {
-      results.put(rule, computeFirsts(rule.getRight()));
+  /**
+   * @return The FIRST set of every suffix of the right hand side of each rule, by the index of the rule in the
+   * grammar and of the first symbol of the suffix. The empty suffix at the end only derives ε.
+   */
+  private static long[][] computeSuffixFirsts(final List<Rule> grammar, final long[] firsts) {
+    final long[][] suffixFirsts = new long[grammar.size()][];
+    for (int r = 0; r < grammar.size(); r++) {
+      final List<TokenType> right = grammar.get(r).getRight();
+      final long[] suffixes = new long[right.size() + 1];
+      suffixes[right.size()] = EMPTY;
+      for (int i = right.size() - 1; i >= 0; i--) {
+        final long first = firsts[right.get(i).ordinal()];
+        suffixes[i] = (first & EMPTY) != 0 ? (first & ~EMPTY) | suffixes[i + 1] : first;
+      }
+      suffixFirsts[r] = suffixes;
     }
-    return results;
+    return suffixFirsts;
   }
 
-  private Set<TokenType> computeFirsts(final List<TokenType> tokens) {
-    final Set<TokenType> first = new HashSet<>();
-    boolean hasEmptyPrefix = true;
-    for (int i = 0; i < tokens.size(); i++) {
-      final Set<TokenType> productionFirsts = new HashSet<>(firsts.get(tokens.get(i)));
-      hasEmptyPrefix = productionFirsts.contains(TokenType.EMPTY);
-      productionFirsts.remove(TokenType.EMPTY);
-      first.addAll(productionFirsts);
-      if (!hasEmptyPrefix) {
-        break;
+  private static long computeFirsts(final long[] firsts, final List<TokenType> tokens) {
+    long first = 0;
+    for (final TokenType token : tokens) {
+      final long productionFirsts = firsts[token.ordinal()];
+      first |= productionFirsts & ~EMPTY;
+      if ((productionFirsts & EMPTY) == 0) {
+        return first;
       }
     }
-    if (hasEmptyPrefix) {
-      first.add(TokenType.EMPTY);
-    }
-    return first;
+    return first | EMPTY;
   }
 
-  private Map<TokenType, Set<TokenType>> computeFollows(final List<Rule> grammar) {
-    final Predicate<TokenType> isTerminal = TokenType::isTerminal;
-    final Predicate<TokenType> isNonTerminal = isTerminal.negate();
-    final List<TokenType> nonTerminals = Stream.of(TokenType.values()).filter(isNonTerminal).collect(toList());
-
-    final Map<TokenType, Set<TokenType>> follows = new HashMap<>();
-
-    // Initialize nonterminals to have empty follow sets:
-    nonTerminals.forEach(nonTerminal -> follows.put(nonTerminal, new HashSet<>()));
-
-    follows.put(TokenType.getStartSymbol(), singleton(TokenType.END_OF_INPUT));
+  /**
+   * @return The FOLLOW set of each nonterminal, by ordinal, as a bit mask of ordinals.
+   */
+  private static long[] computeFollows(final List<Rule> grammar, final long[][] suffixFirsts) {
+    final long[] follows = new long[TOKEN_TYPES.length];
+    follows[TokenType.getStartSymbol().ordinal()] = bit(TokenType.END_OF_INPUT);
 
     boolean changed;
     do {
       changed = false;
-      for (final Rule rule : grammar) {
-        final TokenType left = rule.getLeft();
+      for (int r = 0; r < grammar.size(); r++) {
+        final Rule rule = grammar.get(r);
+        final long leftFollows = follows[rule.getLeft().ordinal()];
         final List<TokenType> right = rule.getRight();
         for (int i = 0; i < right.size(); i++) {
           final TokenType currentToken = right.get(i);
           if (!currentToken.isTerminal()) {
-            final List<TokenType> followingTokens = right.subList(i + 1, right.size());
-            final Set<TokenType> follow = computeFirsts(followingTokens); // x_i+1 -> !!!!!
-            final boolean containsEmpty = follow.contains(TokenType.EMPTY);
-            follow.remove(TokenType.EMPTY);
-            changed = follows.get(currentToken).addAll(follow);
-            if (containsEmpty) {
-              changed |= follows.get(currentToken).addAll(follows.get(left));
+            final long follow = suffixFirsts[r][i + 1];
+            long updated = follows[currentToken.ordinal()] | (follow & ~EMPTY);
+            if ((follow & EMPTY) != 0) {
+              updated |= leftFollows;
             }
+            changed |= updated != follows[currentToken.ordinal()];
+            follows[currentToken.ordinal()] = updated;
           }
         }
       }
@@ -217,10 +250,25 @@ final class Parser {
     return follows;
   }
 
+  /**
+   * Sets of {@link TokenType}s are bit masks of their ordinals, which fit in a long.
+   */
+  private static long bit(final TokenType type) {
+    return 1L << type.ordinal();
+  }
+
   @Override
   public String toString() {
+    final Map<TokenType, Map<TokenType, Rule>> entries = new LinkedHashMap<>();
+    for (int i = 0; i < parsingTable.length; i++) {
+      for (int j = 0; j < parsingTable[i].length; j++) {
+        if (parsingTable[i][j] != null) {
+          entries.computeIfAbsent(TOKEN_TYPES[i], nonTerminal -> new LinkedHashMap<>()).put(TOKEN_TYPES[j], parsingTable[i][j]);
+        }
+      }
+    }
     return "Parser{" +
-        "parsingTable=" + parsingTable +
+        "parsingTable=" + entries +
         '}';
   }
 }
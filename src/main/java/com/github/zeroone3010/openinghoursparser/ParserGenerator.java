@@ -0,0 +1,248 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the Java source of a recursive-descent parser for an LL(1) grammar. The generated parser makes the same
+ * decisions as the parsing table of {@link Parser}, but as straight-line code: one method per nonterminal, which
+ * switches on the next terminal and matches the symbols of the chosen rule in turn.
+ *
+ * A nonterminal at the end of a rule is not called but returned to a small loop, so that a long list such as the
+ * schedules of the default grammar does not grow the call stack. The generated parser pulls its tokens from a
+ * {@link Lexer.Cursor} and feeds each matched token to a {@link ScheduleCompiler}.
+ *
+ * The parser of {@link Grammars#defaultGrammar()} is checked in as {@link DefaultGrammarParser}; run the main method
+ * with the path of that file to regenerate it after changing the grammar.
+ */
+final class ParserGenerator {
+  private static final String INDENT = "  ";
+
+  private final List<Rule> grammar;
+  private final Parser parser;
+  private final String className;
+  private final String grammarName;
+  private final StringBuilder out = new StringBuilder();
+
+  private ParserGenerator(final List<Rule> grammar, final String className, final String grammarName) {
+    this.grammar = grammar;
+    this.parser = new Parser(grammar);
+    this.className = className;
+    this.grammarName = grammarName;
+  }
+
+  public static void main(final String[] args) throws IOException {
+    final Path file = Paths.get(args.length > 0 ? args[0]
+        : "src/main/java/com/github/zeroone3010/openinghoursparser/DefaultGrammarParser.java");
+    Files.write(file, generateDefault().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return The source of {@link DefaultGrammarParser}.
+   */
+  static String generateDefault() {
+    return generate(Grammars.defaultGrammar(), "DefaultGrammarParser", "Grammars#defaultGrammar()");
+  }
+
+  /**
+   * @param grammar     An LL(1) grammar.
+   * @param className   The name of the class to generate, in this package.
+   * @param grammarName A Javadoc reference to where the grammar comes from.
+   * @return The source code of the class.
+   */
+  static String generate(final List<Rule> grammar, final String className, final String grammarName) {
+    return new ParserGenerator(grammar, className, grammarName).generate();
+  }
+
+  private String generate() {
+    final List<TokenType> nonTerminals = nonTerminals();
+    final Set<TokenType> tailCalls = tailCalls();
+
+    line(0, "package com.github.zeroone3010.openinghoursparser;");
+    line(0, "");
+    line(0, "// Generated by ParserGenerator. Do not edit by hand; run ParserGenerator.main to regenerate.");
+    line(0, "");
+    line(0, "/**");
+    line(0, " * A recursive-descent parser for {@link " + grammarName + "}, which accepts and rejects the same");
+    line(0, " * inputs as a {@link Parser} of that grammar.");
+    line(0, " */");
+    line(0, "final class " + className + " {");
+    line(1, "private static final int FAILED = -1;");
+    line(1, "private static final int DONE = 0;");
+    int id = 1;
+    for (final TokenType nonTerminal : tailCalls) {
+      line(1, "private static final int " + nonTerminal.name() + " = " + id++ + ";");
+    }
+    line(0, "");
+    line(1, "private final Lexer.Cursor cursor;");
+    line(1, "private final ScheduleCompiler compiler;");
+    line(1, "private TokenType lookahead;");
+    line(0, "");
+    line(1, "private " + className + "(final Lexer.Cursor cursor, final ScheduleCompiler compiler) {");
+    line(2, "this.cursor = cursor;");
+    line(2, "this.compiler = compiler;");
+    line(2, "this.lookahead = cursor.type();");
+    line(1, "}");
+    line(0, "");
+    line(1, "/**");
+    line(1, " * Parses the tokens of the cursor, from its current one to the end, and feeds them to the compiler.");
+    line(1, " *");
+    line(1, " * @return false if the tokens are not valid. The cursor is then at the token that was rejected, or has ended.");
+    line(1, " */");
+    line(1, "static boolean parse(final Lexer.Cursor cursor, final ScheduleCompiler compiler) {");
+    line(2, "final " + className + " parser = new " + className + "(cursor, compiler);");
+    line(2, "return parser.resume(parser." + methodName(TokenType.getStartSymbol()) + "()) && parser.lookahead == TokenType."
+        + TokenType.END_OF_INPUT.name() + ";");
+    line(1, "}");
+    line(0, "");
+    line(1, "private void consume() {");
+    line(2, "compiler.accept(cursor);");
+    line(2, "lookahead = cursor.next() ? cursor.type() : TokenType." + TokenType.END_OF_INPUT.name() + ";");
+    line(1, "}");
+    line(0, "");
+    line(1, "/**");
+    line(1, " * Goes on from the state that a nonterminal method returned until that nonterminal has been parsed.");
+    line(1, " */");
+    line(1, "private boolean resume(final int state) {");
+    if (tailCalls.isEmpty()) {
+      line(2, "return state == DONE;");
+    } else {
+      line(2, "int next = state;");
+      line(2, "while (next > DONE) {");
+      line(3, "switch (next) {");
+      for (final TokenType nonTerminal : tailCalls) {
+        line(4, "case " + nonTerminal.name() + ":");
+        line(5, "next = " + methodName(nonTerminal) + "();");
+        line(5, "break;");
+      }
+      line(4, "default:");
+      line(5, "next = FAILED;");
+      line(3, "}");
+      line(2, "}");
+      line(2, "return next == DONE;");
+    }
+    line(1, "}");
+    for (final TokenType nonTerminal : nonTerminals) {
+      line(0, "");
+      nonTerminal(nonTerminal);
+    }
+    line(0, "}");
+    return out.toString();
+  }
+
+  /**
+   * Writes the method of one nonterminal, which returns {@code FAILED}, {@code DONE}, or the nonterminal that is
+   * left to parse at the end of the chosen rule.
+   */
+  private void nonTerminal(final TokenType nonTerminal) {
+    line(1, "private int " + methodName(nonTerminal) + "() {");
+    line(2, "switch (lookahead) {");
+    for (final Map.Entry<Rule, List<TokenType>> entry : lookaheads(nonTerminal).entrySet()) {
+      for (final TokenType terminal : entry.getValue()) {
+        line(3, "case " + terminal.name() + ":");
+      }
+      rule(entry.getKey());
+    }
+    line(3, "default:");
+    line(4, "return FAILED;");
+    line(2, "}");
+    line(1, "}");
+  }
+
+  private void rule(final Rule rule) {
+    final List<TokenType> right = rule.getRight();
+    if (rule.expansion.length == 0) {
+      line(4, "return DONE;");
+      return;
+    }
+    for (int i = 0; i < right.size(); i++) {
+      final TokenType symbol = right.get(i);
+      final boolean last = i == right.size() - 1;
+      if (symbol.isTerminal()) {
+        if (i > 0) {
+          line(4, "if (lookahead != TokenType." + symbol.name() + ") {");
+          line(5, "return FAILED;");
+          line(4, "}");
+        }
+        line(4, "consume();");
+        if (last) {
+          line(4, "return DONE;");
+        }
+      } else if (last) {
+        line(4, "return " + symbol.name() + ";");
+      } else {
+        line(4, "if (!resume(" + methodName(symbol) + "())) {");
+        line(5, "return FAILED;");
+        line(4, "}");
+      }
+    }
+  }
+
+  /**
+   * @return The terminals that choose each rule of the nonterminal, by rule in the order of the grammar.
+   */
+  private Map<Rule, List<TokenType>> lookaheads(final TokenType nonTerminal) {
+    final Map<Rule, List<TokenType>> lookaheads = new LinkedHashMap<>();
+    for (final Rule rule : grammar) {
+      if (rule.getLeft() != nonTerminal) {
+        continue;
+      }
+      for (final TokenType terminal : TokenType.values()) {
+        if (terminal.isTerminal() && parser.rule(nonTerminal, terminal) == rule) {
+          lookaheads.computeIfAbsent(rule, r -> new ArrayList<>()).add(terminal);
+        }
+      }
+    }
+    return lookaheads;
+  }
+
+  private List<TokenType> nonTerminals() {
+    final Set<TokenType> nonTerminals = new LinkedHashSet<>();
+    for (final Rule rule : grammar) {
+      nonTerminals.add(rule.getLeft());
+    }
+    return new ArrayList<>(nonTerminals);
+  }
+
+  /**
+   * @return The nonterminals that end a rule, and are therefore returned to the loop instead of being called.
+   */
+  private Set<TokenType> tailCalls() {
+    final Set<TokenType> tailCalls = new LinkedHashSet<>();
+    for (final Rule rule : grammar) {
+      final List<TokenType> right = rule.getRight();
+      final TokenType last = right.get(right.size() - 1);
+      if (!last.isTerminal()) {
+        tailCalls.add(last);
+      }
+    }
+    return tailCalls;
+  }
+
+  private static String methodName(final TokenType nonTerminal) {
+    final StringBuilder name = new StringBuilder();
+    for (final String word : nonTerminal.name().toLowerCase(Locale.ROOT).split("_")) {
+      name.append(name.length() == 0 ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+    }
+    return name.toString();
+  }
+
+  private void line(final int depth, final String text) {
+    if (!text.isEmpty()) {
+      for (int i = 0; i < depth; i++) {
+        out.append(INDENT);
+      }
+    }
+    out.append(text).append('\n');
+  }
+}
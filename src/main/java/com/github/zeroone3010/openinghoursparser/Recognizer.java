@@ -0,0 +1,419 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A deterministic finite automaton over characters that accepts the same inputs as {@link Lexer#tokenize(CharSequence)}
+ * followed by {@link Parser#validate(List)}, and runs without allocating anything.
+ *
+ * It is compiled in two steps. The grammar is first turned into an automaton over terminals by exploring the stacks
+ * of a {@link Parser.Run}; this only terminates if the language of the grammar is regular, as that of the default
+ * grammar is, so a grammar whose stacks keep growing has no recognizer. The states of the scanner, i.e. the node of
+ * the word trie and the progress of a time and of a date, are then combined with the states of the grammar, and each
+ * transition is tabulated for classes of characters that the scanner cannot tell apart. Where the scanner takes a
+ * word after reading past it, looking for a longer one, the transition goes on as if the characters after the word
+ * had been read again.
+ *
+ * Like {@link Parser#validate(List)}, a recognizer does not check that the times and dates exist, so "25:00"
+ * passes.
+ */
+final class Recognizer {
+  private static final int MAX_GRAMMAR_STATES = 1000;
+  private static final int MAX_STACK_SIZE = 64;
+  private static final int MAX_TRANSITIONS = 1 << 21;
+  private static final int FAILED = -1;
+
+  private final int[] asciiClasses;
+  private final char[] otherChars;
+  private final int[] otherClasses;
+  private final int classCount;
+  private final int[] transitions;
+  private final int[] ends;
+  private final int[] depths;
+  private final boolean[] accepting;
+
+  private Recognizer(final int[] asciiClasses, final char[] otherChars, final int[] otherClasses, final int classCount,
+                     final int[] transitions, final int[] ends, final int[] depths, final boolean[] accepting) {
+    this.asciiClasses = asciiClasses;
+    this.otherChars = otherChars;
+    this.otherClasses = otherClasses;
+    this.classCount = classCount;
+    this.transitions = transitions;
+    this.ends = ends;
+    this.depths = depths;
+    this.accepting = accepting;
+  }
+
+  /**
+   * @return The recognizer of the given grammar and words, or null if the language of the grammar is not
+   * regular or the automaton would be too large.
+   */
+  static Recognizer compile(final Parser parser, final Lexer lexer) {
+    final List<TokenType> terminals = terminals(lexer);
+    final GrammarAutomaton grammar = GrammarAutomaton.explore(parser, terminals);
+    if (grammar == null) {
+      return null;
+    }
+    return new Builder(lexer, grammar, terminals).build();
+  }
+
+  /**
+   * @return The position of the first character of the first token that makes the input invalid, the length of
+   * the input if it ends too early, or -1 if the input is valid. An unknown token is invalid where it starts.
+   */
+  int findInvalidOffset(final CharSequence input) {
+    final int length = input.length();
+    int state = 0;
+    for (int i = 0; i < length; i++) {
+      state = transitions[state * classCount + classOf(input.charAt(i))];
+      if (state <= FAILED) {
+        return i - (FAILED - state);
+      }
+    }
+    state = ends[state];
+    if (state <= FAILED) {
+      return length - (FAILED - state);
+    }
+    if (depths[state] > 0) {
+      return length - depths[state];
+    }
+    return accepting[state] ? -1 : length;
+  }
+
+  private int classOf(final char c) {
+    if (c < asciiClasses.length) {
+      return asciiClasses[c];
+    }
+    final int index = Arrays.binarySearch(otherChars, c);
+    return index >= 0 ? otherClasses[index] : 0;
+  }
+
+  /**
+   * A transition to a negative value fails at the token that starts the given number of characters before the
+   * character of the transition, encoded as {@code FAILED - back}.
+   */
+  private static int failed(final int back) {
+    return FAILED - back;
+  }
+
+  private static List<TokenType> terminals(final Lexer lexer) {
+    final Set<TokenType> terminals = new LinkedHashSet<>();
+    for (int i = 0; i < lexer.words().size(); i++) {
+      terminals.add(lexer.wordType(i));
+    }
+    terminals.add(TokenType.TIME);
+    terminals.add(TokenType.DATE);
+    terminals.add(TokenType.RANGE_INDICATOR);
+    terminals.add(TokenType.SCHEDULE_SEPARATOR);
+    return new ArrayList<>(terminals);
+  }
+
+  /**
+   * The grammar as an automaton over terminals. State 0 stands for an input without tokens, which is valid even
+   * though the grammar itself may require some; otherwise it goes on like the start state of the parser.
+   */
+  private static final class GrammarAutomaton {
+    private final int[][] transitions;
+    private final boolean[] accepting;
+
+    private GrammarAutomaton(final int[][] transitions, final boolean[] accepting) {
+      this.transitions = transitions;
+      this.accepting = accepting;
+    }
+
+    /**
+     * @return The automaton, or null if the stack of the parser grows without bound.
+     */
+    static GrammarAutomaton explore(final Parser parser, final List<TokenType> terminals) {
+      final Map<List<Integer>, Integer> states = new HashMap<>();
+      final List<Parser.Run> runs = new ArrayList<>();
+      final List<int[]> transitions = new ArrayList<>();
+      final Parser.Run start = parser.start();
+      runs.add(start);
+      runs.add(start);
+      states.put(stack(start), 1);
+      for (int state = 0; state < runs.size(); state++) {
+        final int[] next = new int[terminals.size()];
+        for (int t = 0; t < terminals.size(); t++) {
+          final Parser.Run run = runs.get(state).copy();
+          if (!run.accept(terminals.get(t))) {
+            next[t] = FAILED;
+            continue;
+          }
+          final List<Integer> stack = stack(run);
+          if (stack.size() > MAX_STACK_SIZE) {
+            return null;
+          }
+          Integer target = states.get(stack);
+          if (target == null) {
+            if (runs.size() == MAX_GRAMMAR_STATES) {
+              return null;
+            }
+            target = runs.size();
+            states.put(stack, target);
+            runs.add(run);
+          }
+          next[t] = target;
+        }
+        transitions.add(next);
+      }
+      final boolean[] accepting = new boolean[runs.size()];
+      accepting[0] = true;
+      for (int state = 1; state < runs.size(); state++) {
+        accepting[state] = runs.get(state).copy().finish();
+      }
+      return new GrammarAutomaton(transitions.toArray(new int[0][]), accepting);
+    }
+
+    private static List<Integer> stack(final Parser.Run run) {
+      final List<Integer> stack = new ArrayList<>();
+      for (final int symbol : run.expected()) {
+        stack.add(symbol);
+      }
+      return stack;
+    }
+  }
+
+  /**
+   * Explores the states reachable from the start, each of which is a state of the grammar combined with the
+   * progress of the scanner within the current token: the node of the word trie, or -1 once no word can match;
+   * the number of characters of a time seen, or -1 once no time can match; the same for a date; whether a line
+   * terminator has been seen; and the longest word seen that longer words may still extend, or -1. A state with the
+   * trie at the root and no characters of a time is at the start of a token.
+   */
+  private static final class Builder {
+    private static final int DEAD = -1;
+
+    private final Lexer lexer;
+    private final Trie trie;
+    private final GrammarAutomaton grammar;
+    private final Map<TokenType, Integer> terminals = new HashMap<>();
+    private final Map<String, Integer> classes = new LinkedHashMap<>();
+    private final List<Character> representatives = new ArrayList<>();
+    private final Map<List<Integer>, Integer> states = new HashMap<>();
+    private final List<int[]> scannerStates = new ArrayList<>();
+    private final Map<Integer, String> paths = new HashMap<>();
+
+    private Builder(final Lexer lexer, final GrammarAutomaton grammar, final List<TokenType> terminals) {
+      this.lexer = lexer;
+      this.trie = lexer.wordTrie();
+      this.grammar = grammar;
+      for (int i = 0; i < terminals.size(); i++) {
+        this.terminals.put(terminals.get(i), i);
+      }
+      for (final String word : lexer.words()) {
+        int node = Trie.ROOT;
+        for (int i = 0; i <= word.length(); i++) {
+          paths.put(node, word.substring(0, i));
+          node = i < word.length() ? trie.step(node, word.charAt(i)) : node;
+        }
+      }
+    }
+
+    Recognizer build() {
+      final int[] asciiClasses = new int[128];
+      classes.put("", 0);
+      representatives.add('\u0000');
+      for (char c = 0; c < asciiClasses.length; c++) {
+        asciiClasses[c] = classOf(c);
+      }
+      final Set<Character> others = new TreeSet<>();
+      for (final String name : lexer.words()) {
+        for (final char c : name.toCharArray()) {
+          if (c >= asciiClasses.length) {
+            others.add(c);
+          }
+        }
+      }
+      others.addAll(Arrays.asList('\u0085', '\u2028', '\u2029'));
+      final char[] otherChars = new char[others.size()];
+      final int[] otherClasses = new int[others.size()];
+      int i = 0;
+      for (final char c : others) {
+        otherChars[i] = c;
+        otherClasses[i] = classOf(c);
+        i++;
+      }
+
+      final int classCount = classes.size();
+      state(0, Trie.ROOT, 0, 0, false, -1);
+      final List<Integer> transitions = new ArrayList<>();
+      final List<Integer> ends = new ArrayList<>();
+      for (int state = 0; state < scannerStates.size(); state++) {
+        if ((long) scannerStates.size() * classCount > MAX_TRANSITIONS) {
+          return null;
+        }
+        for (int cls = 0; cls < classCount; cls++) {
+          transitions.add(step(scannerStates.get(state), representatives.get(cls)));
+        }
+        ends.add(finish(state));
+      }
+
+      final int[] depths = new int[scannerStates.size()];
+      final boolean[] accepting = new boolean[scannerStates.size()];
+      for (int state = 0; state < scannerStates.size(); state++) {
+        final int[] scanner = scannerStates.get(state);
+        depths[state] = depth(scanner);
+        accepting[state] = depths[state] == 0 && grammar.accepting[scanner[0]];
+      }
+      return new Recognizer(asciiClasses, otherChars, otherClasses, classCount,
+          transitions.stream().mapToInt(Integer::intValue).toArray(),
+          ends.stream().mapToInt(Integer::intValue).toArray(), depths, accepting);
+    }
+
+    /**
+     * Puts a character in a class of its own if it occurs in a word, and otherwise in the class of the
+     * characters that the scanner treats the same way.
+     */
+    private int classOf(final char c) {
+      final String key;
+      if (lexer.words().stream().anyMatch(name -> name.indexOf(c) >= 0)) {
+        key = String.valueOf(c);
+      } else {
+        final StringBuilder traits = new StringBuilder();
+        if (LocalizedTokens.isDigit(c)) traits.append("digit ");
+        if (LocalizedTokens.isWhiteSpace(c)) traits.append("space ");
+        if (LocalizedTokens.isLineTerminator(c)) traits.append("line ");
+        if (c == ':' || c == '-' || c == ',') traits.append(c);
+        key = traits.length() == 0 ? "" : "#" + traits;
+      }
+      return classes.computeIfAbsent(key, k -> {
+        representatives.add(c);
+        return classes.size();
+      });
+    }
+
+    private int state(final int grammarState, final int node, final int time, final int date,
+                      final boolean lineTerminatorSeen, final int word) {
+      final List<Integer> key = Arrays.asList(grammarState, node, time, date, lineTerminatorSeen ? 1 : 0, word);
+      return states.computeIfAbsent(key, k -> {
+        scannerStates.add(new int[]{grammarState, node, time, date, lineTerminatorSeen ? 1 : 0, word});
+        return scannerStates.size() - 1;
+      });
+    }
+
+    /**
+     * @return The number of characters of the current token that have been read.
+     */
+    private int depth(final int[] state) {
+      return state[1] >= 0 ? paths.get(state[1]).length() : state[2] != DEAD ? state[2] : state[3];
+    }
+
+    /**
+     * Makes the same decisions for the next character as the scanner of {@link Lexer} does.
+     */
+    private int step(final int[] state, final char c) {
+      final int grammarState = state[0];
+      final int node = state[1];
+      final int time = state[2];
+      final int date = state[3];
+      final boolean lineTerminatorSeen = state[4] != 0;
+      final int word = state[5];
+      final int depth = depth(state);
+      final boolean first = depth == 0;
+
+      int nextNode = -1;
+      int nextWord = word;
+      if (node >= 0) {
+        nextNode = trie.step(node, c);
+        if (nextNode >= 0 && trie.value(nextNode) >= 0) {
+          if (trie.isLeaf(nextNode)) {
+            return emit(grammarState, lexer.wordType(trie.value(nextNode)), depth);
+          }
+          nextWord = trie.value(nextNode);
+        } else if (nextNode < 0 && word >= 0) {
+          return takeWord(state, c);
+        }
+      }
+      if (first && c == '-') {
+        return emit(grammarState, TokenType.RANGE_INDICATOR, depth);
+      }
+      int nextTime = DEAD;
+      if (time != DEAD && (time == 2 ? c == ':' : LocalizedTokens.isDigit(c))) {
+        nextTime = time + 1;
+        if (nextTime == LocalizedTokens.TIME_LENGTH) {
+          return emit(grammarState, TokenType.TIME, depth);
+        }
+      }
+      int nextDate = DEAD;
+      if (date != DEAD && (date == 4 || date == 7 ? c == '-' : LocalizedTokens.isDigit(c))) {
+        nextDate = date + 1;
+        if (nextDate == LocalizedTokens.DATE_LENGTH) {
+          return emit(grammarState, TokenType.DATE, depth);
+        }
+      }
+      if (LocalizedTokens.isWhiteSpace(c)) {
+        if (first) {
+          return state(grammarState, Trie.ROOT, 0, 0, false, -1);
+        }
+        if (!lineTerminatorSeen) {
+          return word >= 0 ? takeWord(state, c) : failed(depth);
+        }
+      }
+      if (first && c == ',') {
+        return emit(grammarState, TokenType.SCHEDULE_SEPARATOR, depth);
+      }
+      if (nextNode < 0 && nextTime == DEAD && nextDate == DEAD) {
+        return failed(depth); // Only an unknown token can come out of this.
+      }
+      return state(grammarState, nextNode, nextTime, nextDate,
+          lineTerminatorSeen || LocalizedTokens.isLineTerminator(c), nextWord);
+    }
+
+    /**
+     * Takes the longest word seen in the given state, as the scanner does when the next character cannot extend it,
+     * and reads the characters after the word again, followed by the next character.
+     */
+    private int takeWord(final int[] state, final char c) {
+      final int next = afterWord(state);
+      if (next <= FAILED) {
+        return next;
+      }
+      return step(scannerStates.get(next), c);
+    }
+
+    /**
+     * @return The state at the end of the input.
+     */
+    private int finish(final int state) {
+      final int[] scanner = scannerStates.get(state);
+      if (scanner[5] < 0) {
+        return state;
+      }
+      final int next = afterWord(scanner);
+      return next <= FAILED ? next : finish(next);
+    }
+
+    /**
+     * @return The state after the longest word seen in the given state and the characters after it, with failures
+     * counted back from the character after them.
+     */
+    private int afterWord(final int[] state) {
+      final String after = paths.get(state[1]).substring(lexer.words().get(state[5]).length());
+      int next = emit(state[0], lexer.wordType(state[5]), depth(state));
+      for (int i = 0; i < after.length() && next > FAILED; i++) {
+        next = step(scannerStates.get(next), after.charAt(i));
+        if (next <= FAILED) {
+          return next - (after.length() - i);
+        }
+      }
+      return next;
+    }
+
+    /**
+     * @param depth The number of characters of the token before the current one, to count a failure back from.
+     */
+    private int emit(final int grammarState, final TokenType terminal, final int depth) {
+      final int next = grammar.transitions[grammarState][terminals.get(terminal)];
+      return next == FAILED ? failed(depth) : state(next, Trie.ROOT, 0, 0, false, -1);
+    }
+  }
+}
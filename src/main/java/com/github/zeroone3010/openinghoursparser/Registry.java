@@ -0,0 +1,80 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds the parsing table of each grammar and the vocabulary of each list of locales once, lazily, and shares them between
+ * all {@link OpeningHours} instances. Both are immutable, so sharing them between threads is safe.
+ *
+ * Entries are never removed; applications are expected to use a handful of grammars and locales.
+ */
+final class Registry {
+  private static final ConcurrentMap<List<Rule>, Parser> PARSERS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<List<Locale>, Lexer> LEXERS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Key, OpeningHours> OPENING_HOURS = new ConcurrentHashMap<>();
+
+  private Registry() {
+    // prevent instantiation
+  }
+
+  static Parser parser(final List<Rule> grammar) {
+    final Parser parser = PARSERS.get(grammar);
+    if (parser != null) {
+      return parser;
+    }
+    return PARSERS.computeIfAbsent(copyOf(grammar), Parser::new);
+  }
+
+  static Lexer lexer(final List<Locale> locales) {
+    final Lexer lexer = LEXERS.get(locales);
+    if (lexer != null) {
+      return lexer;
+    }
+    return LEXERS.computeIfAbsent(copyOf(locales), l -> new Lexer(new LocalizedTokens(l)));
+  }
+
+  static OpeningHours openingHours(final List<Rule> grammar, final List<Locale> locales) {
+    final OpeningHours openingHours = OPENING_HOURS.get(new Key(grammar, locales));
+    if (openingHours != null) {
+      return openingHours;
+    }
+    return OPENING_HOURS.computeIfAbsent(new Key(copyOf(grammar), copyOf(locales)),
+        key -> new OpeningHours(key.grammar, key.locales));
+  }
+
+  /**
+   * The caller may change its list of rules or locales later on, so the registry keeps a copy of its own.
+   */
+  private static <T> List<T> copyOf(final List<T> list) {
+    return Collections.unmodifiableList(new ArrayList<>(list));
+  }
+
+  private static final class Key {
+    private final List<Rule> grammar;
+    private final List<Locale> locales;
+
+    private Key(final List<Rule> grammar, final List<Locale> locales) {
+      this.grammar = grammar;
+      this.locales = locales;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key key = (Key) o;
+      return grammar.equals(key.grammar) && locales.equals(key.locales);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(grammar, locales);
+    }
+  }
+}
@@ -3,9 +3,12 @@ package com.github.zeroone3010.openinghoursparser;
 import java.util.List;
 import java.util.Objects;
 
+import static java.util.Collections.singletonList;
+
 final class Rule {
   final TokenType left;
   final List<TokenType> right;
+  final int[] expansion;
 
   public Rule(final TokenType left, final List<TokenType> right) {
     if (left.isTerminal()) {
@@ -13,6 +16,22 @@ final class Rule {
     }
     this.left = left;
     this.right = right;
+    this.expansion = computeExpansion(right);
+  }
+
+  /**
+   * @return The ordinals of the right hand side in the order in which a parser pushes them onto its stack,
+   * i.e. reversed. A rule that only produces ε pushes nothing.
+   */
+  private static int[] computeExpansion(final List<TokenType> right) {
+    if (singletonList(TokenType.EMPTY).equals(right)) {
+      return new int[0];
+    }
+    final int[] expansion = new int[right.size()];
+    for (int i = 0; i < expansion.length; i++) {
+      expansion[i] = right.get(right.size() - 1 - i).ordinal();
+    }
+    return expansion;
   }
 
   public TokenType getLeft() {
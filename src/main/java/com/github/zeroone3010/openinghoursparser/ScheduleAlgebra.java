@@ -0,0 +1,199 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Set operations on {@link WeeklySchedule}s, such as the times at which all branches of a chain are open, or at least
+ * one pharmacy of a district is.
+ *
+ * A schedule is turned into a bitmap of the minutes of the week, one bit per minute, and the operations are done on
+ * the 158 words of the bitmaps. The operations on many schedules take one pass over each schedule, so their cost
+ * grows linearly with the number of schedules.
+ *
+ * The results are normalized: overlapping and adjacent intervals are merged, and an interval that lasts longer than
+ * a day is split into days that are open for 24 hours from its opening time onwards. A result is thus open at the
+ * same times as, but not necessarily equal to, a schedule that was parsed from an input.
+ *
+ * Only the weekly opening hours take part: date exceptions of the operands are ignored, and the results have none.
+ */
+public final class ScheduleAlgebra {
+  private static final int WORDS = (WeeklySchedule.MINUTES_PER_WEEK + Long.SIZE - 1) / Long.SIZE;
+  private static final long LAST_WORD_MASK = -1L >>> (WORDS * Long.SIZE - WeeklySchedule.MINUTES_PER_WEEK);
+
+  private ScheduleAlgebra() {
+    // prevent instantiation
+  }
+
+  /**
+   * @return A schedule that is open whenever any of the given ones is; always closed if none are given.
+   * @throws IllegalArgumentException If the result would have more intervals than fit in one schedule.
+   */
+  public static WeeklySchedule union(final WeeklySchedule... schedules) {
+    return union(Arrays.asList(schedules));
+  }
+
+  /**
+   * Like {@link #union(WeeklySchedule...)}.
+   */
+  public static WeeklySchedule union(final Collection<WeeklySchedule> schedules) {
+    final long[] result = new long[WORDS];
+    for (final WeeklySchedule schedule : schedules) {
+      fill(result, schedule);
+    }
+    return toSchedule(result);
+  }
+
+  /**
+   * @return A schedule that is open whenever all of the given ones are; always open if none are given.
+   * @throws IllegalArgumentException If the result would have more intervals than fit in one schedule.
+   */
+  public static WeeklySchedule intersection(final WeeklySchedule... schedules) {
+    return intersection(Arrays.asList(schedules));
+  }
+
+  /**
+   * Like {@link #intersection(WeeklySchedule...)}.
+   */
+  public static WeeklySchedule intersection(final Collection<WeeklySchedule> schedules) {
+    final long[] result = always();
+    final long[] bits = new long[WORDS];
+    for (final WeeklySchedule schedule : schedules) {
+      Arrays.fill(bits, 0L);
+      fill(bits, schedule);
+      for (int i = 0; i < WORDS; i++) {
+        result[i] &= bits[i];
+      }
+    }
+    return toSchedule(result);
+  }
+
+  /**
+   * @return A schedule that is open whenever the first one is and the second one is not.
+   * @throws IllegalArgumentException If the result would have more intervals than fit in one schedule.
+   */
+  public static WeeklySchedule difference(final WeeklySchedule schedule, final WeeklySchedule subtracted) {
+    final long[] result = bits(schedule);
+    final long[] bits = bits(subtracted);
+    for (int i = 0; i < WORDS; i++) {
+      result[i] &= ~bits[i];
+    }
+    return toSchedule(result);
+  }
+
+  /**
+   * @return A schedule that is open whenever the given one is closed.
+   * @throws IllegalArgumentException If the result would have more intervals than fit in one schedule.
+   */
+  public static WeeklySchedule complement(final WeeklySchedule schedule) {
+    final long[] result = bits(schedule);
+    for (int i = 0; i < WORDS; i++) {
+      result[i] = ~result[i];
+    }
+    result[WORDS - 1] &= LAST_WORD_MASK;
+    return toSchedule(result);
+  }
+
+  private static long[] always() {
+    final long[] bits = new long[WORDS];
+    Arrays.fill(bits, -1L);
+    bits[WORDS - 1] = LAST_WORD_MASK;
+    return bits;
+  }
+
+  private static long[] bits(final WeeklySchedule schedule) {
+    final long[] bits = new long[WORDS];
+    fill(bits, schedule);
+    return bits;
+  }
+
+  /**
+   * Sets the bits of the minutes at which the schedule is open.
+   */
+  private static void fill(final long[] bits, final WeeklySchedule schedule) {
+    final short[] intervals = schedule.getOpenIntervals();
+    for (int i = 0; i < intervals.length; i += 2) {
+      fill(bits, intervals[i], intervals[i + 1]);
+    }
+  }
+
+  /**
+   * Sets the bits from the first minute up to, but not including, the second one.
+   */
+  private static void fill(final long[] bits, final int from, final int to) {
+    if (from >= to) {
+      return;
+    }
+    final int first = from >>> 6;
+    final int last = (to - 1) >>> 6;
+    final long firstMask = -1L << from;
+    final long lastMask = -1L >>> -to;
+    if (first == last) {
+      bits[first] |= firstMask & lastMask;
+      return;
+    }
+    bits[first] |= firstMask;
+    for (int i = first + 1; i < last; i++) {
+      bits[i] = -1L;
+    }
+    bits[last] |= lastMask;
+  }
+
+  /**
+   * @return The index of the first bit at or after the given one that is set, or not set if {@code set} is false,
+   * or the length of the week if there is none.
+   */
+  private static int next(final long[] bits, final int from, final boolean set) {
+    int word = from >>> 6;
+    if (word >= WORDS) {
+      return WeeklySchedule.MINUTES_PER_WEEK;
+    }
+    long remaining = (set ? bits[word] : ~bits[word]) & -1L << from;
+    while (remaining == 0) {
+      if (++word == WORDS) {
+        return WeeklySchedule.MINUTES_PER_WEEK;
+      }
+      remaining = set ? bits[word] : ~bits[word];
+    }
+    return Math.min(word * Long.SIZE + Long.numberOfTrailingZeros(remaining), WeeklySchedule.MINUTES_PER_WEEK);
+  }
+
+  private static WeeklySchedule toSchedule(final long[] bits) {
+    final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+    final int week = WeeklySchedule.MINUTES_PER_WEEK;
+    final int firstClosed = next(bits, 0, false);
+    if (firstClosed == week) {
+      addDays(builder, 0, week);
+      return builder.build();
+    }
+    // An interval that is open at the end of the week goes on from the beginning of it, up to the first closed minute.
+    int open = next(bits, firstClosed, true);
+    while (open < week) {
+      final int close = next(bits, open, false);
+      addDays(builder, open, close == week ? week + firstClosed : close);
+      open = next(bits, close, true);
+    }
+    if (firstClosed > 0 && !isSet(bits, week - 1)) {
+      addDays(builder, 0, firstClosed);
+    }
+    return builder.build();
+  }
+
+  private static boolean isSet(final long[] bits, final int minute) {
+    return (bits[minute >>> 6] & 1L << minute) != 0;
+  }
+
+  /**
+   * Adds an interval of minutes of the week, which may go on into the next week, as intervals of at most a day that
+   * begin on consecutive days.
+   */
+  private static void addDays(final WeeklySchedule.Builder builder, final int open, final int close) {
+    for (int start = open; start < close; start += WeeklySchedule.MINUTES_PER_DAY) {
+      final int length = Math.min(close - start, WeeklySchedule.MINUTES_PER_DAY);
+      final int day = start / WeeklySchedule.MINUTES_PER_DAY % 7;
+      final int openMinute = start % WeeklySchedule.MINUTES_PER_DAY;
+      builder.addInterval(DayOfWeek.of(day + 1), openMinute, (openMinute + length) % WeeklySchedule.MINUTES_PER_DAY);
+    }
+  }
+}
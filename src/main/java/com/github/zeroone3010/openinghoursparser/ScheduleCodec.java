@@ -0,0 +1,230 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+
+/**
+ * A compact binary encoding of {@link WeeklySchedule}s. Reads and writes use absolute positions, so the position of
+ * a buffer is never changed.
+ *
+ * Version 1 begins with a version byte and the number of intervals of each day from Monday to Sunday, one byte each.
+ * Three bytes follow for each interval, in the order of the days: the opening minute of day times 2048 plus the
+ * closing minute of day, big-endian. A schedule with n intervals thus takes 8 + 3n bytes.
+ *
+ * Version 2 is written for schedules with date exceptions. It is laid out like version 1, followed by the number of
+ * exception dates and the number of their intervals, two bytes each. A six-byte record follows for each date, in
+ * order: its four-byte epoch day and the two-byte index of its first interval. The intervals of the dates come last,
+ * three bytes each as above. Schedules without exceptions are still written in version 1, so that every schedule
+ * has exactly one encoding.
+ */
+public final class ScheduleCodec {
+  public static final int VERSION = 2;
+
+  private static final int DAYS = 7;
+  private static final int HEADER_LENGTH = 1 + DAYS;
+  private static final int CLOSE_BITS = 11;
+  private static final int EXCEPTIONS_HEADER_LENGTH = 4;
+  private static final int EXCEPTION_RECORD_LENGTH = 6;
+
+  private ScheduleCodec() {
+    // prevent instantiation
+  }
+
+  /**
+   * @return The number of bytes that {@link #encode(WeeklySchedule, ByteBuffer, int)} writes for the schedule.
+   */
+  public static int encodedLength(final WeeklySchedule schedule) {
+    final DateExceptions exceptions = schedule.exceptions;
+    final int length = HEADER_LENGTH + 3 * (schedule.minutes.length / 2);
+    if (exceptions.size() == 0) {
+      return length;
+    }
+    return length + EXCEPTIONS_HEADER_LENGTH + EXCEPTION_RECORD_LENGTH * exceptions.size()
+        + 3 * (exceptions.minutes.length / 2);
+  }
+
+  public static byte[] encode(final WeeklySchedule schedule) {
+    final byte[] bytes = new byte[encodedLength(schedule)];
+    encode(schedule, ByteBuffer.wrap(bytes), 0);
+    return bytes;
+  }
+
+  /**
+   * @return The number of bytes written, as given by {@link #encodedLength(WeeklySchedule)}.
+   */
+  public static int encode(final WeeklySchedule schedule, final ByteBuffer target, final int offset) {
+    final DateExceptions exceptions = schedule.exceptions;
+    target.put(offset, (byte) (exceptions.size() == 0 ? 1 : VERSION));
+    int position = offset + HEADER_LENGTH;
+    for (int day = 0; day < DAYS; day++) {
+      final int begin = schedule.begin(day);
+      final int end = schedule.end(day);
+      target.put(offset + 1 + day, (byte) ((end - begin) / 2));
+      for (int i = begin; i < end; i += 2) {
+        write(target, position, schedule.minutes[i], schedule.minutes[i + 1]);
+        position += 3;
+      }
+    }
+    if (exceptions.size() == 0) {
+      return position - offset;
+    }
+    target.putShort(position, (short) exceptions.size());
+    target.putShort(position + 2, (short) (exceptions.minutes.length / 2));
+    position += EXCEPTIONS_HEADER_LENGTH;
+    for (int i = 0; i < exceptions.size(); i++) {
+      target.putInt(position, exceptions.dates[i]);
+      target.putShort(position + 4, (short) (exceptions.begin(i) / 2));
+      position += EXCEPTION_RECORD_LENGTH;
+    }
+    for (int i = 0; i < exceptions.minutes.length; i += 2) {
+      write(target, position, exceptions.minutes[i], exceptions.minutes[i + 1]);
+      position += 3;
+    }
+    return position - offset;
+  }
+
+  private static void write(final ByteBuffer target, final int position, final int open, final int close) {
+    final int value = open << CLOSE_BITS | close;
+    target.put(position, (byte) (value >>> 16));
+    target.put(position + 1, (byte) (value >>> 8));
+    target.put(position + 2, (byte) value);
+  }
+
+  /**
+   * Reads an encoded schedule into a new {@link WeeklySchedule}. To query an encoded schedule without creating
+   * objects, use a {@link ScheduleView} instead.
+   *
+   * @throws IllegalArgumentException If the bytes are not in a known version of the encoding.
+   */
+  public static WeeklySchedule decode(final ByteBuffer source, final int offset) {
+    checkVersion(source, offset);
+    final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+    for (final DayOfWeek day : DayOfWeek.values()) {
+      final int count = intervalCount(source, offset, day.ordinal());
+      for (int i = 0; i < count; i++) {
+        final int value = interval(source, offset, day.ordinal(), i);
+        builder.addInterval(day, open(value), close(value));
+      }
+    }
+    final int exceptions = exceptions(source, offset);
+    for (int i = 0; exceptions >= 0 && i < exceptionCount(source, exceptions); i++) {
+      final int date = exceptionDate(source, exceptions, i);
+      builder.closeOn(date);
+      for (int j = 0; j < exceptionIntervalCount(source, exceptions, i); j++) {
+        final int value = exceptionInterval(source, exceptions, i, j);
+        builder.addExceptionInterval(date, open(value), close(value));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return The number of bytes of the encoded schedule at the given offset.
+   */
+  static int encodedLength(final ByteBuffer source, final int offset) {
+    final int exceptions = exceptions(source, offset);
+    if (exceptions < 0) {
+      return weeklyLength(source, offset);
+    }
+    return exceptions - offset + EXCEPTIONS_HEADER_LENGTH + EXCEPTION_RECORD_LENGTH * exceptionCount(source, exceptions)
+        + 3 * (source.getShort(exceptions + 2) & 0xFFFF);
+  }
+
+  private static int weeklyLength(final ByteBuffer source, final int offset) {
+    int intervals = 0;
+    for (int day = 0; day < DAYS; day++) {
+      intervals += source.get(offset + 1 + day) & 0xFF;
+    }
+    return HEADER_LENGTH + 3 * intervals;
+  }
+
+  static void checkVersion(final ByteBuffer source, final int offset) {
+    final int version = source.get(offset) & 0xFF;
+    if (version < 1 || version > VERSION) {
+      throw new IllegalArgumentException("Unknown schedule encoding version " + version + " at offset " + offset);
+    }
+  }
+
+  static int intervalCount(final ByteBuffer source, final int offset, final int day) {
+    return source.get(offset + 1 + day) & 0xFF;
+  }
+
+  /**
+   * @return The opening and closing minutes of an interval of a day, to be taken apart with {@link #open(int)} and
+   * {@link #close(int)}.
+   */
+  static int interval(final ByteBuffer source, final int offset, final int day, final int index) {
+    int before = index;
+    for (int i = 0; i < day; i++) {
+      before += source.get(offset + 1 + i) & 0xFF;
+    }
+    return read(source, offset + HEADER_LENGTH + 3 * before);
+  }
+
+  /**
+   * @return The position of the exceptions of the encoded schedule at the given offset, to be read with the methods
+   * below, or -1 if it has none.
+   */
+  static int exceptions(final ByteBuffer source, final int offset) {
+    return source.get(offset) == VERSION ? offset + weeklyLength(source, offset) : -1;
+  }
+
+  static int exceptionCount(final ByteBuffer source, final int exceptions) {
+    return source.getShort(exceptions) & 0xFFFF;
+  }
+
+  static int exceptionDate(final ByteBuffer source, final int exceptions, final int index) {
+    return source.getInt(exceptions + EXCEPTIONS_HEADER_LENGTH + EXCEPTION_RECORD_LENGTH * index);
+  }
+
+  /**
+   * @return The index of the exception of the given epoch day, found by binary search, or -1 if it has none.
+   */
+  static int findException(final ByteBuffer source, final int exceptions, final long epochDay) {
+    int low = 0;
+    int high = exceptionCount(source, exceptions) - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int date = exceptionDate(source, exceptions, middle);
+      if (date < epochDay) {
+        low = middle + 1;
+      } else if (date > epochDay) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  static int exceptionIntervalCount(final ByteBuffer source, final int exceptions, final int index) {
+    final int end = index + 1 < exceptionCount(source, exceptions)
+        ? firstExceptionInterval(source, exceptions, index + 1) : source.getShort(exceptions + 2) & 0xFFFF;
+    return end - firstExceptionInterval(source, exceptions, index);
+  }
+
+  /**
+   * @return An interval of an exception, like {@link #interval(ByteBuffer, int, int, int)}.
+   */
+  static int exceptionInterval(final ByteBuffer source, final int exceptions, final int index, final int interval) {
+    final int first = exceptions + EXCEPTIONS_HEADER_LENGTH
+        + EXCEPTION_RECORD_LENGTH * exceptionCount(source, exceptions);
+    return read(source, first + 3 * (firstExceptionInterval(source, exceptions, index) + interval));
+  }
+
+  private static int firstExceptionInterval(final ByteBuffer source, final int exceptions, final int index) {
+    return source.getShort(exceptions + EXCEPTIONS_HEADER_LENGTH + EXCEPTION_RECORD_LENGTH * index + 4) & 0xFFFF;
+  }
+
+  private static int read(final ByteBuffer source, final int position) {
+    return (source.get(position) & 0xFF) << 16 | (source.get(position + 1) & 0xFF) << 8 | source.get(position + 2) & 0xFF;
+  }
+
+  static int open(final int interval) {
+    return interval >>> CLOSE_BITS;
+  }
+
+  static int close(final int interval) {
+    return interval & ((1 << CLOSE_BITS) - 1);
+  }
+}
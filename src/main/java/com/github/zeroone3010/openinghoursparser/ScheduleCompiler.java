@@ -0,0 +1,175 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Builds a {@link WeeklySchedule} from validated tokens that are fed to it one at a time.
+ */
+final class ScheduleCompiler {
+  private final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+
+  private DayOfWeek dayOfWeekRangeStart;
+  private DayOfWeek dayOfWeekRangeEnd;
+  private int dateRangeStart = LocalizedTokens.NO_DATE;
+  private int dateRangeEnd = LocalizedTokens.NO_DATE;
+  private int timeRangeStart = -1;
+  private String failure;
+  private long firstLocales;
+  private long commonLocales = -1L;
+
+  /**
+   * @param type   The type of the token.
+   * @param source The characters that contain the token.
+   * @param start  The position of the token in the source.
+   */
+  void accept(final TokenType type, final CharSequence source, final int start) {
+    if (type == TokenType.TIME) {
+      final int time = LocalizedTokens.minuteOfDay(source, start);
+      if (time < 0) {
+        invalid("time", source.subSequence(start, start + LocalizedTokens.TIME_LENGTH));
+        return;
+      }
+      accept(type, time);
+    } else if (type == TokenType.DATE) {
+      final int date = LocalizedTokens.epochDay(source, start);
+      if (date == LocalizedTokens.NO_DATE) {
+        invalid("date", source.subSequence(start, start + LocalizedTokens.DATE_LENGTH));
+        return;
+      }
+      accept(type, date);
+    } else {
+      accept(type, -1);
+    }
+  }
+
+  /**
+   * Takes the current token of the cursor.
+   */
+  void accept(final Lexer.Cursor cursor) {
+    if (cursor.locales() != 0) {
+      firstLocales = firstLocales == 0 ? cursor.locales() : firstLocales;
+      commonLocales &= cursor.locales();
+    }
+    if (cursor.type() == TokenType.TIME) {
+      final int time = cursor.time();
+      if (time < 0) {
+        invalid("time", cursor.text());
+        return;
+      }
+      accept(cursor.type(), time);
+    } else if (cursor.type() == TokenType.DATE) {
+      final int date = cursor.date();
+      if (date == LocalizedTokens.NO_DATE) {
+        invalid("date", cursor.text());
+        return;
+      }
+      accept(cursor.type(), date);
+    } else {
+      accept(cursor.type(), -1);
+    }
+  }
+
+  private void invalid(final String what, final CharSequence text) {
+    if (failure == null) {
+      failure = "Invalid " + what + " '" + text + "'";
+    }
+  }
+
+  /**
+   * @param value The minute of day of a time, or the epoch day of a date.
+   */
+  private void accept(final TokenType type, final int value) {
+    if (failure != null) {
+      return;
+    }
+    if (type.isWeekday()) {
+      if (dayOfWeekRangeStart == null) {
+        dayOfWeekRangeStart = type.asDayOfWeek();
+      }
+      dayOfWeekRangeEnd = type.asDayOfWeek();
+    } else if (type == TokenType.DATE) {
+      if (dateRangeStart == LocalizedTokens.NO_DATE) {
+        dateRangeStart = value;
+      } else if (value < dateRangeStart) {
+        failure = "Invalid date range '" + LocalDate.ofEpochDay(dateRangeStart) + "-" + LocalDate.ofEpochDay(value)
+            + "'";
+        return;
+      }
+      dateRangeEnd = value;
+    } else if (type == TokenType.TIME) {
+      if (timeRangeStart < 0) {
+        timeRangeStart = value;
+      } else {
+        if (dayOfWeekRangeStart != null) {
+          addInterval(timeRangeStart, value);
+        } else if (dateRangeStart != LocalizedTokens.NO_DATE) {
+          addExceptionInterval(timeRangeStart, value);
+        }
+        timeRangeStart = -1;
+      }
+    } else if (type == TokenType.OFF) {
+      closeOnDates();
+    } else if (type == TokenType.SCHEDULE_SEPARATOR) {
+      dayOfWeekRangeStart = null;
+      dayOfWeekRangeEnd = null;
+      dateRangeStart = LocalizedTokens.NO_DATE;
+      dateRangeEnd = LocalizedTokens.NO_DATE;
+    }
+  }
+
+  /**
+   * Adds the interval to each day of the current days, in addition to the intervals that they already have.
+   */
+  private void addInterval(final int open, final int close) {
+    try {
+      for (int i = dayOfWeekRangeStart.getValue(); i <= dayOfWeekRangeEnd.getValue(); i++) {
+        builder.addInterval(DayOfWeek.of(i), open, close);
+      }
+    } catch (final IllegalArgumentException e) {
+      failure = e.getMessage();
+    }
+  }
+
+  /**
+   * Adds the interval to each of the current dates, in addition to the intervals that they already have.
+   */
+  private void addExceptionInterval(final int open, final int close) {
+    try {
+      for (int date = dateRangeStart; date <= dateRangeEnd; date++) {
+        builder.addExceptionInterval(date, open, close);
+      }
+    } catch (final IllegalArgumentException e) {
+      failure = e.getMessage();
+    }
+  }
+
+  private void closeOnDates() {
+    try {
+      for (int date = dateRangeStart; date <= dateRangeEnd; date++) {
+        builder.closeOn(date);
+      }
+    } catch (final IllegalArgumentException e) {
+      failure = e.getMessage();
+    }
+  }
+
+  /**
+   * @return A description of why compilation failed, or null if it has not failed.
+   */
+  String getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return A bit mask of the locales in which all day names taken from a cursor are valid, or the locales of the
+   * first day name if there are none; zero if there were no day names.
+   */
+  long getLocales() {
+    return firstLocales == 0 || commonLocales == 0 ? firstLocales : commonLocales;
+  }
+
+  WeeklySchedule build() {
+    return builder.build();
+  }
+}
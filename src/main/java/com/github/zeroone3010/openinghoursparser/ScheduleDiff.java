@@ -0,0 +1,92 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Finds the places whose opening hours differ between two snapshots, such as the stores built from yesterday's and
+ * today's feed, so that only those have to be processed further. Opening hours that were written differently but
+ * compile to equal schedules, e.g. "Mon-Fri 09:00-17:00" and "Mon-Wed 09:00-17:00, Thu-Fri 09:00-17:00", are not
+ * changes.
+ */
+public final class ScheduleDiff {
+  private ScheduleDiff() {
+    // prevent instantiation
+  }
+
+  /**
+   * Receives the changed places in the order in which they are found.
+   */
+  @FunctionalInterface
+  public interface Sink {
+    /**
+     * @param placeId The id of the place.
+     * @param before  The old schedule, or null if the place is new.
+     * @param after   The new schedule, or null if the place has been removed.
+     */
+    void accept(long placeId, WeeklySchedule before, WeeklySchedule after) throws IOException;
+  }
+
+  /**
+   * Walks through the two stores in the order of place ids at once, comparing the encoded schedules in place.
+   * Only the schedules of changed places are decoded.
+   *
+   * @return The number of changed places.
+   */
+  public static long diff(final ScheduleStore before, final ScheduleStore after, final Sink sink) throws IOException {
+    final ScheduleStore.Mapping old = before.mapping();
+    final ScheduleStore.Mapping current = after.mapping();
+    long changes = 0;
+    int i = 0;
+    int j = 0;
+    while (i < old.count || j < current.count) {
+      final long oldId = i < old.count ? old.id(i) : 0;
+      final long currentId = j < current.count ? current.id(j) : 0;
+      if (j == current.count || i < old.count && oldId < currentId) {
+        sink.accept(oldId, decode(old, i), null);
+        changes++;
+        i++;
+      } else if (i == old.count || currentId < oldId) {
+        sink.accept(currentId, null, decode(current, j));
+        changes++;
+        j++;
+      } else {
+        if (!ScheduleView.equal(old.buffer, old.offset(i), current.buffer, current.offset(j))) {
+          sink.accept(oldId, decode(old, i), decode(current, j));
+          changes++;
+        }
+        i++;
+        j++;
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * Compares two snapshots held in maps. Places that are only in the new snapshot are reported last.
+   *
+   * @return The number of changed places.
+   */
+  public static long diff(final Map<Long, WeeklySchedule> before, final Map<Long, WeeklySchedule> after,
+                          final Sink sink) throws IOException {
+    long changes = 0;
+    for (final Map.Entry<Long, WeeklySchedule> entry : before.entrySet()) {
+      final WeeklySchedule schedule = after.get(entry.getKey());
+      if (!entry.getValue().equals(schedule)) {
+        sink.accept(entry.getKey(), entry.getValue(), schedule);
+        changes++;
+      }
+    }
+    for (final Map.Entry<Long, WeeklySchedule> entry : after.entrySet()) {
+      if (!before.containsKey(entry.getKey())) {
+        sink.accept(entry.getKey(), null, entry.getValue());
+        changes++;
+      }
+    }
+    return changes;
+  }
+
+  private static WeeklySchedule decode(final ScheduleStore.Mapping mapping, final int index) {
+    return ScheduleCodec.decode(mapping.buffer, mapping.offset(index));
+  }
+}
@@ -0,0 +1,174 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Writes schedules as opening hours in a canonical form, such as "Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00",
+ * which an {@link OpeningHours} parser of the same locale reads back as an equal schedule. Consecutive days with
+ * equal opening hours are written as a range of days, and closed days are left out; a schedule that is always
+ * closed is written as an empty string. Equal schedules are thus always written the same way.
+ *
+ * Date exceptions follow the days of the week, such as "2026-12-24-2026-12-26 off, 2026-12-31 10:00-14:00", with
+ * consecutive dates of equal opening hours likewise written as a range of dates.
+ *
+ * Instances are immutable and can be shared between threads freely. Apart from the output, formatting allocates
+ * nothing.
+ */
+public final class ScheduleFormatter {
+  private static final int DAYS = 7;
+  private static final int DAYS_PER_CYCLE = 146097;
+  private static final int DAYS_FROM_MARCH_0000_TO_EPOCH = 719468;
+
+  private final String[] dayNames = new String[DAYS];
+
+  /**
+   * Creates a formatter that writes the English names of the days of the week.
+   */
+  public ScheduleFormatter() {
+    this(Locale.ENGLISH);
+  }
+
+  /**
+   * Creates a formatter that writes the names of the days of the week in the given locale, as {@link LocalizedTokens}
+   * reads them.
+   */
+  public ScheduleFormatter(final Locale locale) {
+    final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE", locale);
+    for (final DayOfWeek day : DayOfWeek.values()) {
+      dayNames[day.ordinal()] = formatter.format(day);
+    }
+  }
+
+  public String format(final WeeklySchedule schedule) {
+    return formatTo(schedule, new StringBuilder()).toString();
+  }
+
+  /**
+   * @return The given builder.
+   */
+  public StringBuilder formatTo(final WeeklySchedule schedule, final StringBuilder target) {
+    try {
+      formatTo(schedule, (Appendable) target);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e); // a StringBuilder does not throw
+    }
+    return target;
+  }
+
+  /**
+   * @throws IOException If the target throws one; the target may then hold part of the output.
+   */
+  public void formatTo(final WeeklySchedule schedule, final Appendable target) throws IOException {
+    boolean first = true;
+    int day = 0;
+    while (day < DAYS) {
+      int last = day;
+      while (last + 1 < DAYS && sameDay(schedule, day, last + 1)) {
+        last++;
+      }
+      if (schedule.begin(day) != schedule.end(day)) {
+        if (!first) {
+          target.append(", ");
+        }
+        first = false;
+        target.append(dayNames[day]);
+        if (last > day) {
+          target.append('-').append(dayNames[last]);
+        }
+        appendIntervals(target, schedule.minutes, schedule.begin(day), schedule.end(day));
+      }
+      day = last + 1;
+    }
+    final DateExceptions exceptions = schedule.exceptions;
+    int date = 0;
+    while (date < exceptions.size()) {
+      int last = date;
+      while (last + 1 < exceptions.size() && exceptions.dates[last + 1] == exceptions.dates[last] + 1
+          && sameDate(exceptions, date, last + 1)) {
+        last++;
+      }
+      if (!first) {
+        target.append(", ");
+      }
+      first = false;
+      appendDate(target, exceptions.dates[date]);
+      if (last > date) {
+        target.append('-');
+        appendDate(target, exceptions.dates[last]);
+      }
+      if (exceptions.begin(date) == exceptions.end(date)) {
+        target.append(' ').append(LocalizedTokens.OFF);
+      }
+      appendIntervals(target, exceptions.minutes, exceptions.begin(date), exceptions.end(date));
+      date = last + 1;
+    }
+  }
+
+  private static boolean sameDay(final WeeklySchedule schedule, final int day, final int other) {
+    final int length = schedule.end(day) - schedule.begin(day);
+    if (length != schedule.end(other) - schedule.begin(other)) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (schedule.minutes[schedule.begin(day) + i] != schedule.minutes[schedule.begin(other) + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean sameDate(final DateExceptions exceptions, final int date, final int other) {
+    final int length = exceptions.end(date) - exceptions.begin(date);
+    if (length != exceptions.end(other) - exceptions.begin(other)) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (exceptions.minutes[exceptions.begin(date) + i] != exceptions.minutes[exceptions.begin(other) + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void appendIntervals(final Appendable target, final short[] minutes, final int begin, final int end)
+      throws IOException {
+    for (int i = begin; i < end; i += 2) {
+      target.append(' ');
+      appendTime(target, minutes[i]);
+      target.append('-');
+      appendTime(target, minutes[i + 1]);
+    }
+  }
+
+  /**
+   * Appends the date as yyyy-MM-dd, counting the years in 400-year cycles that begin on the 1st of March, so that
+   * the leap day comes last.
+   */
+  private static void appendDate(final Appendable target, final int epochDay) throws IOException {
+    final int days = epochDay + DAYS_FROM_MARCH_0000_TO_EPOCH;
+    final int cycle = Math.floorDiv(days, DAYS_PER_CYCLE);
+    final int dayOfCycle = days - cycle * DAYS_PER_CYCLE;
+    final int yearOfCycle = (dayOfCycle - dayOfCycle / 1460 + dayOfCycle / 36524 - dayOfCycle / (DAYS_PER_CYCLE - 1))
+        / 365;
+    final int dayOfYear = dayOfCycle - (365 * yearOfCycle + yearOfCycle / 4 - yearOfCycle / 100);
+    final int monthFromMarch = (5 * dayOfYear + 2) / 153;
+    final int day = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+    final int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+    final int year = cycle * 400 + yearOfCycle + (month <= 2 ? 1 : 0);
+    target.append((char) ('0' + year / 1000)).append((char) ('0' + year / 100 % 10))
+        .append((char) ('0' + year / 10 % 10)).append((char) ('0' + year % 10)).append('-')
+        .append((char) ('0' + month / 10)).append((char) ('0' + month % 10)).append('-')
+        .append((char) ('0' + day / 10)).append((char) ('0' + day % 10));
+  }
+
+  private static void appendTime(final Appendable target, final int minuteOfDay) throws IOException {
+    final int hour = minuteOfDay / 60;
+    final int minute = minuteOfDay % 60;
+    target.append((char) ('0' + hour / 10)).append((char) ('0' + hour % 10)).append(':')
+        .append((char) ('0' + minute / 10)).append((char) ('0' + minute % 10));
+  }
+}
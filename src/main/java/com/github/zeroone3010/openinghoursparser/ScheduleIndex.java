@@ -0,0 +1,180 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An index of many {@link WeeklySchedule}s that answers which places are open at a given time.
+ *
+ * The week is divided into slots of a fixed number of minutes. For each slot, the index keeps a bitset of the
+ * places that are open for the whole slot, with one bit per place id. A time inside a slot is answered by the
+ * slot, so the answers are exact when the granularity divides all opening and closing times. Only the weekly
+ * opening hours are indexed; date exceptions are not.
+ *
+ * Queries may run concurrently with each other; {@link #put(int, WeeklySchedule)} and {@link #remove(int)} lock
+ * the index for writing.
+ */
+public final class ScheduleIndex {
+  private final int granularity;
+  private final int slotCount;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * One bitset per slot, as words of 64 places each.
+   */
+  private long[][] slots;
+
+  /**
+   * The places in the index, open or not.
+   */
+  private long[] places;
+
+  /**
+   * @param granularity The length of a slot in minutes, which must divide a day evenly, e.g. 5 or 15.
+   */
+  public ScheduleIndex(final int granularity) {
+    if (granularity < 1 || WeeklySchedule.MINUTES_PER_DAY % granularity != 0) {
+      throw new IllegalArgumentException("The granularity must divide a day into whole slots, was " + granularity);
+    }
+    this.granularity = granularity;
+    this.slotCount = WeeklySchedule.MINUTES_PER_WEEK / granularity;
+    this.slots = new long[slotCount][1];
+    this.places = new long[1];
+  }
+
+  public int getGranularity() {
+    return granularity;
+  }
+
+  /**
+   * Adds a place to the index, or replaces its schedule if it is already there.
+   *
+   * @param placeId A non-negative id; ids are best kept dense, since the bitsets grow up to the largest one.
+   */
+  public void put(final int placeId, final WeeklySchedule schedule) {
+    if (placeId < 0) {
+      throw new IllegalArgumentException("Place ids cannot be negative, was " + placeId);
+    }
+    final int word = placeId >>> 6;
+    final long bit = 1L << placeId;
+    lock.writeLock().lock();
+    try {
+      ensureCapacity(word + 1);
+      clear(word, bit);
+      places[word] |= bit;
+      final short[] openIntervals = schedule.getOpenIntervals();
+      for (int i = 0; i < openIntervals.length; i += 2) {
+        final int firstSlot = (openIntervals[i] + granularity - 1) / granularity;
+        final int endSlot = openIntervals[i + 1] / granularity;
+        for (int slot = firstSlot; slot < endSlot; slot++) {
+          slots[slot][word] |= bit;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(final int placeId) {
+    final int word = placeId >>> 6;
+    final long bit = 1L << placeId;
+    lock.writeLock().lock();
+    try {
+      if (placeId >= 0 && word < places.length) {
+        clear(word, bit);
+        places[word] &= ~bit;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean contains(final int placeId) {
+    lock.readLock().lock();
+    try {
+      final int word = placeId >>> 6;
+      return placeId >= 0 && word < places.length && (places[word] & 1L << placeId) != 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return The ids of the places that are open at the given time.
+   */
+  public BitSet openAt(final DayOfWeek dayOfWeek, final LocalTime time) {
+    final int slot = WeeklySchedule.minuteOfWeek(dayOfWeek, time) / granularity;
+    lock.readLock().lock();
+    try {
+      return BitSet.valueOf(slots[slot]);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return The ids of the places that are open at the given time.
+   */
+  public BitSet openAt(final LocalDateTime dateTime) {
+    return openAt(dateTime.getDayOfWeek(), dateTime.toLocalTime());
+  }
+
+  /**
+   * @return The ids of the places that are open for the whole time from the start until, but not including, the end.
+   */
+  public BitSet openThroughout(final LocalDateTime start, final LocalDateTime end) {
+    if (!end.isAfter(start)) {
+      throw new IllegalArgumentException("The end " + end + " must be after the start " + start);
+    }
+    final int firstMinute = WeeklySchedule.minuteOfWeek(start.getDayOfWeek(), start.toLocalTime());
+    final long lastMinute = firstMinute + ChronoUnit.MINUTES.between(start.truncatedTo(ChronoUnit.MINUTES), end.minusNanos(1));
+    final int firstSlot = firstMinute / granularity;
+    final int slotsInWindow = (int) Math.min(lastMinute / granularity - firstSlot + 1, slotCount);
+    lock.readLock().lock();
+    try {
+      final long[] result = this.slots[firstSlot].clone();
+      for (int i = 1; i < slotsInWindow; i++) {
+        final long[] slot = this.slots[(firstSlot + i) % slotCount];
+        for (int word = 0; word < result.length; word++) {
+          result[word] &= slot[word];
+        }
+      }
+      return BitSet.valueOf(result);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void clear(final int word, final long bit) {
+    for (final long[] slot : slots) {
+      slot[word] &= ~bit;
+    }
+  }
+
+  private void ensureCapacity(final int words) {
+    if (words <= places.length) {
+      return;
+    }
+    final int capacity = Math.max(words, places.length * 2);
+    for (int slot = 0; slot < slotCount; slot++) {
+      slots[slot] = Arrays.copyOf(slots[slot], capacity);
+    }
+    places = Arrays.copyOf(places, capacity);
+  }
+
+  @Override
+  public String toString() {
+    lock.readLock().lock();
+    try {
+      return "ScheduleIndex{granularity=" + granularity + ", places=" + BitSet.valueOf(places).cardinality() + '}';
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
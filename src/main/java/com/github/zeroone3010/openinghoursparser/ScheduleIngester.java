@@ -0,0 +1,500 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads a delimited text file, such as a CSV or TSV dump, and parses the opening hours in one of its columns.
+ *
+ * The file is read in chunks of whole lines. Each chunk is parsed on a worker thread: the worker finds the columns
+ * by scanning the bytes and hands the opening hours to {@link OpeningHours#parse(ByteBuffer)}, or, in a charset
+ * other than UTF-8, decodes them into a reused character buffer for {@link OpeningHours#parse(CharSequence)}. No
+ * String is built for a line. The results are passed to a {@link Sink} on the calling thread, in the order of the
+ * lines. Only a few chunks per worker are in flight at a time, and the chunk buffers are reused, so memory use does
+ * not grow with the size of the file; reading waits for the oldest chunk when the workers fall behind.
+ *
+ * Fields may be quoted with double quotes, in which case they may contain the delimiter and doubled quotes, but not
+ * line breaks. Empty lines are skipped. The charset must encode the delimiter, quotes and line breaks as in ASCII,
+ * as UTF-8 and the ISO-8859 charsets do.
+ */
+public final class ScheduleIngester {
+  private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+  private static final int CHUNKS_PER_WORKER = 2;
+  private static final byte QUOTE = '"';
+
+  private final OpeningHours openingHours;
+  private final int column;
+  private final int idColumn;
+  private final byte delimiter;
+  private final boolean header;
+  private final Charset charset;
+  private final int chunkSize;
+  private final Executor executor;
+  private final int parallelism;
+
+  /**
+   * @param openingHours The parser of the opening hours, which also decides their locale.
+   * @param column       The zero-based index of the column that holds the opening hours.
+   */
+  public ScheduleIngester(final OpeningHours openingHours, final int column) {
+    this(openingHours, column, -1, (byte) ',', false, StandardCharsets.UTF_8, DEFAULT_CHUNK_SIZE,
+        ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism());
+  }
+
+  private ScheduleIngester(final OpeningHours openingHours, final int column, final int idColumn,
+                           final byte delimiter, final boolean header, final Charset charset, final int chunkSize,
+                           final Executor executor, final int parallelism) {
+    if (column < 0) {
+      throw new IllegalArgumentException("Invalid column " + column);
+    }
+    this.openingHours = openingHours;
+    this.column = column;
+    this.idColumn = idColumn;
+    this.delimiter = delimiter;
+    this.header = header;
+    this.charset = charset;
+    this.chunkSize = chunkSize;
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * @return An ingester that reads the place ids from the given column. Without one, the record number of each line
+   * is its id.
+   */
+  public ScheduleIngester withIdColumn(final int idColumn) {
+    if (idColumn < 0) {
+      throw new IllegalArgumentException("Invalid id column " + idColumn);
+    }
+    return new ScheduleIngester(openingHours, column, idColumn, delimiter, header, charset, chunkSize, executor,
+        parallelism);
+  }
+
+  /**
+   * @param delimiter An ASCII character, such as ',' or '\t'.
+   */
+  public ScheduleIngester withDelimiter(final char delimiter) {
+    if (delimiter >= 0x80 || delimiter == QUOTE || delimiter == '\n' || delimiter == '\r') {
+      throw new IllegalArgumentException("Invalid delimiter '" + delimiter + "'");
+    }
+    return new ScheduleIngester(openingHours, column, idColumn, (byte) delimiter, header, charset, chunkSize,
+        executor, parallelism);
+  }
+
+  /**
+   * @return An ingester that skips the first line of the file.
+   */
+  public ScheduleIngester withHeader() {
+    return new ScheduleIngester(openingHours, column, idColumn, delimiter, true, charset, chunkSize, executor,
+        parallelism);
+  }
+
+  public ScheduleIngester withCharset(final Charset charset) {
+    return new ScheduleIngester(openingHours, column, idColumn, delimiter, header, charset, chunkSize, executor,
+        parallelism);
+  }
+
+  /**
+   * @param chunkSize The number of bytes to read at a time. A line that is longer than this gets a larger buffer.
+   */
+  public ScheduleIngester withChunkSize(final int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+    }
+    return new ScheduleIngester(openingHours, column, idColumn, delimiter, header, charset, chunkSize, executor,
+        parallelism);
+  }
+
+  /**
+   * @return An ingester that parses on the given executor, keeping enough chunks in flight for the given number of
+   * threads. By default, the common {@link ForkJoinPool} is used.
+   */
+  public ScheduleIngester withExecutor(final Executor executor, final int parallelism) {
+    return new ScheduleIngester(openingHours, column, idColumn, delimiter, header, charset, chunkSize, executor,
+        Math.max(1, parallelism));
+  }
+
+  /**
+   * Reads and parses the whole file, passing each record to the sink.
+   *
+   * @return The final counters of the run.
+   * @throws IOException If the file cannot be read, or the sink fails.
+   */
+  public Progress ingest(final Path file, final Sink sink) throws IOException {
+    final Progress progress = new Progress();
+    ingest(file, sink, progress);
+    return progress;
+  }
+
+  /**
+   * Like {@link #ingest(Path, Sink)}, but updates the given counters, which another thread may watch while the file
+   * is being read.
+   */
+  public void ingest(final Path file, final Sink sink, final Progress progress) throws IOException {
+    final ArrayDeque<Chunk> inFlight = new ArrayDeque<>();
+    final ArrayDeque<Chunk> free = new ArrayDeque<>();
+    try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      progress.start(channel.size());
+      boolean skipLine = header;
+      Chunk chunk = new Chunk(chunkSize);
+      while (true) {
+        if (chunk.length == chunk.data.length) {
+          chunk.data = Arrays.copyOf(chunk.data, chunk.data.length * 2);
+        }
+        final int read = channel.read(ByteBuffer.wrap(chunk.data, chunk.length, chunk.data.length - chunk.length));
+        if (read < 0) {
+          break;
+        }
+        progress.bytesRead.addAndGet(read);
+        final int lastLineEnd = lastIndexOf(chunk.data, chunk.length, chunk.length + read, (byte) '\n');
+        chunk.length += read;
+        if (lastLineEnd < 0) {
+          continue;
+        }
+        Chunk next = free.poll();
+        if (next == null) {
+          next = new Chunk(chunkSize);
+        }
+        next.carryOver(chunk, lastLineEnd + 1);
+        chunk.skipLine = skipLine;
+        skipLine = false;
+        submit(chunk, inFlight, free, sink, progress);
+        chunk = next;
+      }
+      if (chunk.length > 0) {
+        chunk.skipLine = skipLine;
+        submit(chunk, inFlight, free, sink, progress);
+      }
+      while (!inFlight.isEmpty()) {
+        drain(inFlight.poll(), sink, progress);
+      }
+    }
+  }
+
+  private void submit(final Chunk chunk, final ArrayDeque<Chunk> inFlight, final ArrayDeque<Chunk> free,
+                      final Sink sink, final Progress progress) throws IOException {
+    chunk.future = CompletableFuture.runAsync(chunk::parse, executor);
+    inFlight.add(chunk);
+    while (inFlight.size() > parallelism * CHUNKS_PER_WORKER || !inFlight.isEmpty() && inFlight.peek().future.isDone()) {
+      final Chunk done = inFlight.poll();
+      drain(done, sink, progress);
+      free.add(done);
+    }
+  }
+
+  private void drain(final Chunk chunk, final Sink sink, final Progress progress) throws IOException {
+    try {
+      chunk.future.join();
+    } catch (final CompletionException e) {
+      throw new IOException("Parsing failed", e.getCause());
+    }
+    for (int i = 0; i < chunk.count; i++) {
+      final long record = progress.records.get();
+      final ParseResult result = chunk.results[i];
+      if (!result.isValid()) {
+        progress.failures.incrementAndGet();
+      }
+      sink.accept(record, idColumn < 0 ? record : chunk.ids[i], result);
+      chunk.results[i] = null;
+      progress.records.incrementAndGet();
+    }
+  }
+
+  private static int lastIndexOf(final byte[] data, final int from, final int to, final byte b) {
+    for (int i = to - 1; i >= from; i--) {
+      if (data[i] == b) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Receives the records of a file in the order of its lines. It is only called by the thread that ingests the
+   * file.
+   */
+  @FunctionalInterface
+  public interface Sink {
+    /**
+     * @param record The zero-based number of the record, not counting the header and empty lines.
+     * @param id     The id of the place; zero if the id column is missing or does not hold a number.
+     * @param result The parsed opening hours, or the reason why the record could not be parsed.
+     */
+    void accept(long record, long id, ParseResult result) throws IOException;
+
+    /**
+     * @return A sink that puts the valid schedules into the given store builder and ignores the rest.
+     */
+    static Sink into(final ScheduleStore.Builder builder) {
+      return (record, id, result) -> {
+        if (result.isValid()) {
+          builder.put(id, result.getSchedule());
+        }
+      };
+    }
+  }
+
+  /**
+   * Counters of a run, safe to read from any thread while the run goes on.
+   */
+  public static final class Progress {
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long totalBytes;
+    private volatile long startTime;
+
+    private void start(final long totalBytes) {
+      this.totalBytes = totalBytes;
+      this.startTime = System.nanoTime();
+    }
+
+    public long getBytesRead() {
+      return bytesRead.get();
+    }
+
+    /**
+     * @return The size of the file, or zero before the run starts.
+     */
+    public long getTotalBytes() {
+      return totalBytes;
+    }
+
+    /**
+     * @return The number of records passed to the sink so far.
+     */
+    public long getRecords() {
+      return records.get();
+    }
+
+    /**
+     * @return The number of records passed to the sink so far that could not be parsed.
+     */
+    public long getFailures() {
+      return failures.get();
+    }
+
+    /**
+     * @return The number of records passed to the sink per second since the run started.
+     */
+    public double getRecordsPerSecond() {
+      final long start = startTime;
+      final long elapsed = System.nanoTime() - start;
+      return start == 0 || elapsed <= 0 ? 0 : records.get() * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+      return "Progress{" + getBytesRead() + "/" + getTotalBytes() + " bytes, " + getRecords() + " records, "
+          + getFailures() + " failures, " + Math.round(getRecordsPerSecond()) + " records/s}";
+    }
+  }
+
+  /**
+   * A buffer of whole lines, and the results of parsing them. Chunks are reused once the sink has seen their results.
+   */
+  private final class Chunk {
+    private byte[] data;
+    private int length;
+    private boolean skipLine;
+    private CompletableFuture<Void> future;
+    private int count;
+    private long[] ids = new long[0];
+    private ParseResult[] results = new ParseResult[0];
+    private final int[] fieldStarts = new int[Math.max(column, idColumn) + 1];
+    private final int[] fieldEnds = new int[fieldStarts.length];
+    private final boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+    private ByteBuffer bytes;
+    private CharsetDecoder decoder;
+    private CharBuffer chars = CharBuffer.allocate(0);
+
+    private Chunk(final int size) {
+      this.data = new byte[size];
+    }
+
+    /**
+     * Takes the bytes after the last whole line of the previous chunk.
+     */
+    private void carryOver(final Chunk previous, final int from) {
+      final int rest = previous.length - from;
+      if (data.length < Math.max(rest, chunkSize)) {
+        data = new byte[Math.max(rest, chunkSize)];
+      }
+      System.arraycopy(previous.data, from, data, 0, rest);
+      length = rest;
+      previous.length = from;
+    }
+
+    private void parse() {
+      count = 0;
+      int lineStart = 0;
+      while (lineStart < length) {
+        int lineEnd = lineStart;
+        while (lineEnd < length && data[lineEnd] != '\n') {
+          lineEnd++;
+        }
+        final int next = lineEnd + 1;
+        if (lineEnd > lineStart && data[lineEnd - 1] == '\r') {
+          lineEnd--;
+        }
+        if (skipLine) {
+          skipLine = false;
+        } else if (lineEnd > lineStart) {
+          parseLine(lineStart, lineEnd);
+        }
+        lineStart = next;
+      }
+    }
+
+    private void parseLine(final int from, final int to) {
+      if (count == results.length) {
+        ids = Arrays.copyOf(ids, Math.max(16, count * 2));
+        results = Arrays.copyOf(results, ids.length);
+      }
+      final int fields = split(from, to);
+      long id = 0;
+      ParseResult result = null;
+      if (idColumn >= 0) {
+        if (idColumn < fields) {
+          id = parseId(fieldStarts[idColumn], fieldEnds[idColumn]);
+        }
+        if (id == Long.MIN_VALUE || idColumn >= fields) {
+          id = 0;
+          result = ParseResult.invalid(new ValidationResult(false, "No id in column " + idColumn));
+        }
+      }
+      if (result == null) {
+        result = column < fields ? parseField(fieldStarts[column], fieldEnds[column])
+            : ParseResult.invalid(new ValidationResult(false, "No column " + column));
+      }
+      ids[count] = id;
+      results[count] = result;
+      count++;
+    }
+
+    /**
+     * Finds the fields up to the last one that is needed, unquoting them in place.
+     *
+     * @return The number of fields found.
+     */
+    private int split(final int from, final int to) {
+      int position = from;
+      int field = 0;
+      while (field < fieldStarts.length) {
+        if (position < to && data[position] == QUOTE) {
+          int write = position + 1;
+          int read = position + 1;
+          while (read < to && (data[read] != QUOTE || read + 1 < to && data[read + 1] == QUOTE)) {
+            if (data[read] == QUOTE) {
+              read++;
+            }
+            data[write++] = data[read++];
+          }
+          fieldStarts[field] = position + 1;
+          fieldEnds[field] = write;
+          position = read + 1;
+          while (position < to && data[position] != delimiter) {
+            position++;
+          }
+        } else {
+          fieldStarts[field] = position;
+          while (position < to && data[position] != delimiter) {
+            position++;
+          }
+          fieldEnds[field] = position;
+        }
+        field++;
+        if (position >= to) {
+          break;
+        }
+        position++;
+      }
+      return field;
+    }
+
+    /**
+     * @return The id, or {@link Long#MIN_VALUE} if the field is not a number.
+     */
+    private long parseId(final int from, final int to) {
+      int start = from;
+      int end = to;
+      while (start < end && data[start] == ' ') {
+        start++;
+      }
+      while (end > start && data[end - 1] == ' ') {
+        end--;
+      }
+      final boolean negative = start < end && data[start] == '-';
+      if (negative) {
+        start++;
+      }
+      if (start == end || end - start > 18) {
+        return Long.MIN_VALUE;
+      }
+      long id = 0;
+      for (int i = start; i < end; i++) {
+        final int digit = data[i] - '0';
+        if (digit < 0 || digit > 9) {
+          return Long.MIN_VALUE;
+        }
+        id = id * 10 + digit;
+      }
+      return negative ? -id : id;
+    }
+
+    private ParseResult parseField(final int from, final int to) {
+      try {
+        if (utf8) {
+          if (bytes == null || bytes.array() != data) {
+            bytes = ByteBuffer.wrap(data);
+          }
+          bytes.limit(to).position(from);
+          return openingHours.parse(bytes);
+        }
+        return openingHours.parse(decode(from, to));
+      } catch (final RuntimeException e) {
+        return ParseResult.failed(e);
+      }
+    }
+
+    /**
+     * @return The characters of the field, in a buffer that is overwritten by the next call.
+     */
+    private CharBuffer decode(final int from, final int to) {
+      if (chars.capacity() < to - from) {
+        chars = CharBuffer.allocate(Math.max(to - from, 64));
+      }
+      chars.clear();
+      int i = from;
+      while (i < to && data[i] >= 0) {
+        chars.put((char) data[i++]);
+      }
+      if (i < to) {
+        if (decoder == null) {
+          decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        decoder.reset();
+        decoder.decode(ByteBuffer.wrap(data, i, to - i), chars, true);
+        decoder.flush(chars);
+      }
+      chars.flip();
+      return chars;
+    }
+  }
+}
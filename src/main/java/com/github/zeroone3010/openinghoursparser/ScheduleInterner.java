@@ -0,0 +1,148 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Returns canonical, shared instances of equal {@link WeeklySchedule}s and {@link DailySchedule}s, so that memory
+ * grows with the number of distinct schedules rather than with the number of places. Schedules are immutable, so
+ * sharing them is safe.
+ *
+ * A weak interner keeps a schedule for as long as something else refers to it. A bounded interner keeps a fixed
+ * number of the most recently used schedules; a schedule that has been evicted is simply interned again.
+ * The pools are split into segments that are locked separately.
+ */
+public final class ScheduleInterner {
+  private static final int SEGMENTS = 16;
+
+  private final Pool<WeeklySchedule> weeklySchedules;
+  private final Pool<DailySchedule> dailySchedules;
+
+  private ScheduleInterner(final Pool<WeeklySchedule> weeklySchedules, final Pool<DailySchedule> dailySchedules) {
+    this.weeklySchedules = weeklySchedules;
+    this.dailySchedules = dailySchedules;
+  }
+
+  public static ScheduleInterner weak() {
+    return new ScheduleInterner(new Pool<>(WeakSegment::new), new Pool<>(WeakSegment::new));
+  }
+
+  /**
+   * @param maximumSize The number of weekly schedules to keep, and separately the number of daily schedules.
+   */
+  public static ScheduleInterner bounded(final int maximumSize) {
+    if (maximumSize < SEGMENTS) {
+      throw new IllegalArgumentException("The maximum size of an interner must be at least " + SEGMENTS + ", was " + maximumSize);
+    }
+    return new ScheduleInterner(new Pool<>(() -> new BoundedSegment<>(maximumSize / SEGMENTS)),
+        new Pool<>(() -> new BoundedSegment<>(maximumSize / SEGMENTS)));
+  }
+
+  public WeeklySchedule intern(final WeeklySchedule schedule) {
+    return weeklySchedules.intern(schedule);
+  }
+
+  public DailySchedule intern(final DailySchedule schedule) {
+    if (schedule.isClosed()) {
+      return DailySchedule.closed();
+    }
+    return dailySchedules.intern(schedule);
+  }
+
+  /**
+   * @return The number of distinct weekly schedules in the pool at the moment.
+   */
+  public int size() {
+    return weeklySchedules.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ScheduleInterner{weeklySchedules=" + weeklySchedules.size() + ", dailySchedules=" + dailySchedules.size() + '}';
+  }
+
+  private interface Segment<T> {
+    T intern(T value);
+
+    int size();
+  }
+
+  private static final class Pool<T> {
+    private final Segment<T>[] segments;
+
+    @SuppressWarnings("unchecked")
+    private Pool(final Supplier<Segment<T>> segmentFactory) {
+      this.segments = (Segment<T>[]) new Segment<?>[SEGMENTS];
+      for (int i = 0; i < SEGMENTS; i++) {
+        segments[i] = segmentFactory.get();
+      }
+    }
+
+    private T intern(final T value) {
+      final int hash = value.hashCode();
+      final Segment<T> segment = segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+      synchronized (segment) {
+        return segment.intern(value);
+      }
+    }
+
+    private int size() {
+      int size = 0;
+      for (final Segment<T> segment : segments) {
+        synchronized (segment) {
+          size += segment.size();
+        }
+      }
+      return size;
+    }
+  }
+
+  private static final class WeakSegment<T> implements Segment<T> {
+    private final Map<T, WeakReference<T>> values = new WeakHashMap<>();
+
+    @Override
+    public T intern(final T value) {
+      final WeakReference<T> reference = values.get(value);
+      final T canonical = reference != null ? reference.get() : null;
+      if (canonical != null) {
+        return canonical;
+      }
+      values.put(value, new WeakReference<>(value));
+      return value;
+    }
+
+    @Override
+    public int size() {
+      return values.size();
+    }
+  }
+
+  private static final class BoundedSegment<T> extends LinkedHashMap<T, T> implements Segment<T> {
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    private BoundedSegment(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    public T intern(final T value) {
+      final T canonical = get(value);
+      if (canonical != null) {
+        return canonical;
+      }
+      put(value, value);
+      return value;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<T, T> eldest) {
+      return size() > capacity;
+    }
+  }
+}
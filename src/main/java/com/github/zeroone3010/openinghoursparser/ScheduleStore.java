@@ -0,0 +1,358 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An off-heap store of schedules keyed by a place id, read from a memory-mapped file.
+ *
+ * The file begins with a {@value #HEADER_LENGTH}-byte header: a magic number, the format version, the record length
+ * and the record count. Fixed-width records follow, sorted by place id. Each record holds an eight-byte place id and
+ * the four-byte file offset of the {@link ScheduleCodec} encoding of its schedule, which vary in length. The
+ * encodings come last, and places with equal schedules share one. Lookups binary-search the ids in the mapped file
+ * and read the schedules in place.
+ *
+ * Any number of threads may read the store at once. {@link #swap(Path)} replaces the file atomically: each lookup
+ * sees either the old file or the new one. A single file can be up to 2 GB, i.e. about 170 million places.
+ */
+public final class ScheduleStore {
+  static final int MAGIC = 0x4F485353; // "OHSS"
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+  static final int RECORD_LENGTH = 8 + 4;
+
+  private volatile Mapping mapping;
+
+  private ScheduleStore(final Mapping mapping) {
+    this.mapping = mapping;
+  }
+
+  /**
+   * Maps the given store file into memory, checking that each record points at an encoding within the file.
+   *
+   * @throws IOException If the file cannot be read, is not a store file or is corrupt.
+   */
+  public static ScheduleStore open(final Path file) throws IOException {
+    return new ScheduleStore(Mapping.of(file));
+  }
+
+  /**
+   * Maps the given store file into memory, and then makes it the file that all later lookups read. Lookups that are
+   * in progress finish with the previous file, which is unmapped once it is garbage collected.
+   *
+   * @throws IOException If the file cannot be read, is not a store file or is corrupt; the current file then stays in
+   * use.
+   */
+  public void swap(final Path file) throws IOException {
+    mapping = Mapping.of(file);
+  }
+
+  public static Builder builder(final OpeningHours openingHours) {
+    return new Builder(openingHours);
+  }
+
+  /**
+   * @return The number of places in the store.
+   */
+  public int size() {
+    return mapping.count;
+  }
+
+  public boolean contains(final long placeId) {
+    return mapping.find(placeId) >= 0;
+  }
+
+  /**
+   * @return The schedule of the place, decoded onto the heap, or null if the place is not in the store.
+   */
+  public WeeklySchedule get(final long placeId) {
+    final Mapping current = mapping;
+    final int offset = current.find(placeId);
+    return offset < 0 ? null : ScheduleCodec.decode(current.buffer, offset);
+  }
+
+  /**
+   * @return The schedule of the place on the given day, or null if the place is not in the store.
+   */
+  public DailySchedule get(final long placeId, final DayOfWeek dayOfWeek) {
+    final Mapping current = mapping;
+    final int offset = current.find(placeId);
+    return offset < 0 ? null : ScheduleView.get(current.buffer, offset, dayOfWeek);
+  }
+
+  /**
+   * @return The {@link WeeklySchedule#fingerprint()} of the schedule of the place, computed without decoding it.
+   * @throws NoSuchElementException If the place is not in the store.
+   */
+  public long fingerprint(final long placeId) {
+    final Mapping current = mapping;
+    final int offset = current.find(placeId);
+    if (offset < 0) {
+      throw new NoSuchElementException("No place " + placeId + " in the store");
+    }
+    return ScheduleView.fingerprint(current.buffer, offset);
+  }
+
+  /**
+   * @return true if the place is in the store and open at the given time.
+   */
+  public boolean isOpenAt(final long placeId, final LocalDateTime dateTime) {
+    final Mapping current = mapping;
+    final int offset = current.find(placeId);
+    return offset >= 0 && ScheduleView.isOpenAt(current.buffer, offset, dateTime);
+  }
+
+  /**
+   * @return The file that lookups read at the moment.
+   */
+  Mapping mapping() {
+    return mapping;
+  }
+
+  static final class Mapping {
+    final ByteBuffer buffer;
+    final int count;
+
+    private Mapping(final ByteBuffer buffer, final int count) {
+      this.buffer = buffer;
+      this.count = count;
+    }
+
+    private static Mapping of(final Path file) throws IOException {
+      try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new IOException(file + " is too large to be mapped at once: " + size + " bytes");
+        }
+        if (size < HEADER_LENGTH) {
+          throw new IOException(file + " is not a schedule store");
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        final int version = buffer.getInt(4);
+        final int recordLength = buffer.getInt(8);
+        final int count = buffer.getInt(12);
+        if (buffer.getInt(0) != MAGIC || version != FORMAT_VERSION || recordLength != RECORD_LENGTH || count < 0
+            || size < HEADER_LENGTH + (long) count * RECORD_LENGTH) {
+          throw new IOException(file + " is not a schedule store of format version " + FORMAT_VERSION);
+        }
+        final Mapping mapping = new Mapping(buffer, count);
+        final int recordsEnd = HEADER_LENGTH + count * RECORD_LENGTH;
+        for (int i = 0; i < count; i++) {
+          final int offset = mapping.offset(i);
+          if (offset < recordsEnd || offset >= size) {
+            throw new IOException(file + " is corrupt: the schedule of place " + mapping.id(i) + " is at offset "
+                + offset + ", outside of the encodings from " + recordsEnd + " to " + size);
+          }
+        }
+        return mapping;
+      }
+    }
+
+    /**
+     * @return The offset of the encoded schedule of the place, or -1 if the place is not in the store.
+     */
+    private int find(final long placeId) {
+      int low = 0;
+      int high = count - 1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        final long id = id(middle);
+        if (id < placeId) {
+          low = middle + 1;
+        } else if (id > placeId) {
+          high = middle - 1;
+        } else {
+          return offset(middle);
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * @param index The index of a record, from 0 to {@link #count} - 1, in the order of place ids.
+     */
+    long id(final int index) {
+      return buffer.getLong(HEADER_LENGTH + index * RECORD_LENGTH);
+    }
+
+    /**
+     * @return The offset of the encoded schedule of the given record.
+     */
+    int offset(final int index) {
+      return buffer.getInt(HEADER_LENGTH + index * RECORD_LENGTH + 8);
+    }
+  }
+
+  /**
+   * Collects schedules in memory and writes them into a store file. If a place is added more than once, the last
+   * schedule wins. Each distinct schedule is encoded once. Not thread-safe.
+   */
+  public static final class Builder {
+    private final OpeningHours openingHours;
+    private final Map<WeeklySchedule, Integer> encoded = new HashMap<>();
+    private long[] ids = new long[1024];
+    private int[] offsets = new int[1024];
+    private ByteBuffer schedules = ByteBuffer.allocate(16 * 1024);
+    private int count;
+
+    private Builder(final OpeningHours openingHours) {
+      this.openingHours = openingHours;
+    }
+
+    /**
+     * Parses the opening hours of a place and adds them to the store, if they are valid.
+     *
+     * @return The result of parsing, which tells why the place was left out if it was.
+     */
+    public ParseResult put(final long placeId, final CharSequence openingHours) {
+      final ParseResult result = this.openingHours.parse(openingHours);
+      if (result.isValid()) {
+        put(placeId, result.getSchedule());
+      }
+      return result;
+    }
+
+    public Builder put(final long placeId, final WeeklySchedule schedule) {
+      if (count == ids.length) {
+        ids = Arrays.copyOf(ids, count * 2);
+        offsets = Arrays.copyOf(offsets, count * 2);
+      }
+      ids[count] = placeId;
+      offsets[count] = encoded.computeIfAbsent(schedule, this::encode);
+      count++;
+      return this;
+    }
+
+    private int encode(final WeeklySchedule schedule) {
+      final int offset = schedules.position();
+      final int length = ScheduleCodec.encodedLength(schedule);
+      if (schedules.remaining() < length) {
+        final ByteBuffer larger = ByteBuffer.allocate(Math.max(schedules.capacity() * 2, offset + length));
+        schedules.flip();
+        schedules = larger.put(schedules);
+      }
+      schedules.position(offset + ScheduleCodec.encode(schedule, schedules, offset));
+      return offset;
+    }
+
+    /**
+     * Writes the store into a temporary file next to the given one, and then moves it in place, so that readers of
+     * the file never see a partly written store.
+     */
+    public void writeTo(final Path file) throws IOException {
+      final int[] order = sortedByIdLastOneWins();
+      final long recordsEnd = HEADER_LENGTH + (long) order.length * RECORD_LENGTH;
+      final Map<Integer, Integer> fileOffsets = new LinkedHashMap<>();
+      long length = recordsEnd;
+      for (final int i : order) {
+        if (!fileOffsets.containsKey(offsets[i])) {
+          fileOffsets.put(offsets[i], (int) Math.min(length, Integer.MAX_VALUE));
+          length += ScheduleCodec.encodedLength(schedules, offsets[i]);
+        }
+      }
+      if (length > Integer.MAX_VALUE) {
+        throw new IOException("Too many places for one store file: " + order.length);
+      }
+      final Path directory = file.toAbsolutePath().getParent();
+      final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(RECORD_LENGTH).putInt(order.length);
+        for (final int i : order) {
+          if (buffer.remaining() < RECORD_LENGTH) {
+            write(channel, buffer);
+          }
+          buffer.putLong(ids[i]).putInt(fileOffsets.get(offsets[i]));
+        }
+        for (final int offset : fileOffsets.keySet()) {
+          final ByteBuffer schedule = schedules.duplicate();
+          schedule.limit(offset + ScheduleCodec.encodedLength(schedules, offset)).position(offset);
+          if (buffer.remaining() < schedule.remaining()) {
+            write(channel, buffer);
+            if (buffer.remaining() < schedule.remaining()) {
+              drain(channel, schedule); // larger than the buffer, with many date exceptions
+              continue;
+            }
+          }
+          buffer.put(schedule);
+        }
+        write(channel, buffer);
+        channel.force(true);
+      } catch (final IOException | RuntimeException e) {
+        Files.deleteIfExists(temporary);
+        throw e;
+      }
+      Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+      buffer.flip();
+      drain(channel, buffer);
+      buffer.clear();
+    }
+
+    private static void drain(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+
+    /**
+     * @return The indices of the places to write, in the order of their ids, leaving out all but the last schedule
+     * of each place.
+     */
+    private int[] sortedByIdLastOneWins() {
+      int[] order = new int[count];
+      for (int i = 0; i < count; i++) {
+        order[i] = i;
+      }
+      mergeSort(order, new int[count], 0, count);
+      int size = 0;
+      for (int i = 0; i < count; i++) {
+        if (i + 1 < count && ids[order[i + 1]] == ids[order[i]]) {
+          continue;
+        }
+        order[size++] = order[i];
+      }
+      return size == count ? order : Arrays.copyOf(order, size);
+    }
+
+    /**
+     * A stable sort by id, so that the schedules of one place stay in the order in which they were added.
+     */
+    private void mergeSort(final int[] order, final int[] buffer, final int from, final int to) {
+      if (to - from < 2) {
+        return;
+      }
+      final int middle = (from + to) >>> 1;
+      mergeSort(order, buffer, from, middle);
+      mergeSort(order, buffer, middle, to);
+      if (ids[order[middle - 1]] <= ids[order[middle]]) {
+        return;
+      }
+      System.arraycopy(order, from, buffer, from, to - from);
+      int left = from;
+      int right = middle;
+      for (int i = from; i < to; i++) {
+        if (right >= to || left < middle && ids[buffer[left]] <= ids[buffer[right]]) {
+          order[i] = buffer[left++];
+        } else {
+          order[i] = buffer[right++];
+        }
+      }
+    }
+  }
+}
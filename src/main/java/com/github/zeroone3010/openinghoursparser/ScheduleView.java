@@ -0,0 +1,239 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A flyweight that answers questions about a schedule straight from its {@link ScheduleCodec} encoding in a buffer,
+ * without decoding it. One view can be moved from one encoded schedule to the next with {@link #wrap(ByteBuffer, int)},
+ * so that reading many schedules allocates nothing. A view is not thread-safe, but many views can read the same
+ * buffer at once.
+ */
+public final class ScheduleView {
+  private ByteBuffer buffer;
+  private int offset;
+
+  /**
+   * Points this view at the encoded schedule at the given offset of the buffer.
+   *
+   * @return This view.
+   * @throws IllegalArgumentException If the bytes are not in a known version of the encoding.
+   */
+  public ScheduleView wrap(final ByteBuffer buffer, final int offset) {
+    ScheduleCodec.checkVersion(buffer, offset);
+    this.buffer = buffer;
+    this.offset = offset;
+    return this;
+  }
+
+  public boolean isClosed(final DayOfWeek dayOfWeek) {
+    return getIntervalCount(dayOfWeek) == 0;
+  }
+
+  public int getIntervalCount(final DayOfWeek dayOfWeek) {
+    return ScheduleCodec.intervalCount(buffer, offset, dayOfWeek.ordinal());
+  }
+
+  /**
+   * @return The opening minute of day of the first interval, or -1 if the place is closed for the whole day.
+   */
+  public int getOpenMinute(final DayOfWeek dayOfWeek) {
+    return isClosed(dayOfWeek) ? -1 : getOpenMinute(dayOfWeek, 0);
+  }
+
+  /**
+   * @return The closing minute of day of the first interval, or -1 if the place is closed for the whole day.
+   */
+  public int getCloseMinute(final DayOfWeek dayOfWeek) {
+    return isClosed(dayOfWeek) ? -1 : getCloseMinute(dayOfWeek, 0);
+  }
+
+  /**
+   * @param index The index of an interval, from 0 to {@link #getIntervalCount(DayOfWeek)} - 1.
+   */
+  public int getOpenMinute(final DayOfWeek dayOfWeek, final int index) {
+    return ScheduleCodec.open(ScheduleCodec.interval(buffer, offset, dayOfWeek.ordinal(), index));
+  }
+
+  /**
+   * @param index The index of an interval, from 0 to {@link #getIntervalCount(DayOfWeek)} - 1.
+   */
+  public int getCloseMinute(final DayOfWeek dayOfWeek, final int index) {
+    return ScheduleCodec.close(ScheduleCodec.interval(buffer, offset, dayOfWeek.ordinal(), index));
+  }
+
+  public DailySchedule get(final DayOfWeek dayOfWeek) {
+    return get(buffer, offset, dayOfWeek);
+  }
+
+  /**
+   * Follows the same rules as {@link WeeklySchedule#isOpenAt(DayOfWeek, LocalTime)}, including opening hours that
+   * last over midnight.
+   */
+  public boolean isOpenAt(final DayOfWeek dayOfWeek, final LocalTime time) {
+    return isOpenAt(buffer, offset, dayOfWeek, time);
+  }
+
+  /**
+   * Follows the same rules as {@link WeeklySchedule#isOpenAt(LocalDateTime)}, including date exceptions.
+   */
+  public boolean isOpenAt(final LocalDateTime dateTime) {
+    return isOpenAt(buffer, offset, dateTime);
+  }
+
+  /**
+   * @return The same as {@link WeeklySchedule#fingerprint()} of the schedule that this view points at.
+   */
+  public long fingerprint() {
+    return fingerprint(buffer, offset);
+  }
+
+  /**
+   * @return A heap copy of the schedule that this view points at.
+   */
+  public WeeklySchedule toSchedule() {
+    return ScheduleCodec.decode(buffer, offset);
+  }
+
+  static DailySchedule get(final ByteBuffer buffer, final int offset, final DayOfWeek dayOfWeek) {
+    final int count = ScheduleCodec.intervalCount(buffer, offset, dayOfWeek.ordinal());
+    if (count == 0) {
+      return DailySchedule.closed();
+    }
+    final short[] minutes = new short[2 * count];
+    for (int i = 0; i < count; i++) {
+      final int interval = ScheduleCodec.interval(buffer, offset, dayOfWeek.ordinal(), i);
+      minutes[2 * i] = (short) ScheduleCodec.open(interval);
+      minutes[2 * i + 1] = (short) ScheduleCodec.close(interval);
+    }
+    return new DailySchedule(minutes);
+  }
+
+  static long fingerprint(final ByteBuffer buffer, final int offset) {
+    long hash = WeeklySchedule.FINGERPRINT_SEED;
+    for (int day = 0; day < 7; day++) {
+      final int count = ScheduleCodec.intervalCount(buffer, offset, day);
+      hash = WeeklySchedule.fingerprint(hash, count);
+      for (int i = 0; i < count; i++) {
+        final int interval = ScheduleCodec.interval(buffer, offset, day, i);
+        hash = WeeklySchedule.fingerprint(hash, ScheduleCodec.open(interval), ScheduleCodec.close(interval));
+      }
+    }
+    final int exceptions = ScheduleCodec.exceptions(buffer, offset);
+    for (int i = 0; exceptions >= 0 && i < ScheduleCodec.exceptionCount(buffer, exceptions); i++) {
+      final int count = ScheduleCodec.exceptionIntervalCount(buffer, exceptions, i);
+      hash = WeeklySchedule.fingerprint(WeeklySchedule.fingerprint(hash,
+          ScheduleCodec.exceptionDate(buffer, exceptions, i)), count);
+      for (int j = 0; j < count; j++) {
+        final int interval = ScheduleCodec.exceptionInterval(buffer, exceptions, i, j);
+        hash = WeeklySchedule.fingerprint(hash, ScheduleCodec.open(interval), ScheduleCodec.close(interval));
+      }
+    }
+    return WeeklySchedule.fingerprint(hash);
+  }
+
+  /**
+   * @return true if the encoded schedules are equal.
+   */
+  static boolean equal(final ByteBuffer buffer, final int offset, final ByteBuffer otherBuffer, final int otherOffset) {
+    for (int day = 0; day < 7; day++) {
+      final int count = ScheduleCodec.intervalCount(buffer, offset, day);
+      if (count != ScheduleCodec.intervalCount(otherBuffer, otherOffset, day)) {
+        return false;
+      }
+      for (int i = 0; i < count; i++) {
+        if (ScheduleCodec.interval(buffer, offset, day, i) != ScheduleCodec.interval(otherBuffer, otherOffset, day, i)) {
+          return false;
+        }
+      }
+    }
+    final int exceptions = ScheduleCodec.exceptions(buffer, offset);
+    final int otherExceptions = ScheduleCodec.exceptions(otherBuffer, otherOffset);
+    if (exceptions < 0 || otherExceptions < 0) {
+      return exceptions == otherExceptions;
+    }
+    final int dates = ScheduleCodec.exceptionCount(buffer, exceptions);
+    if (dates != ScheduleCodec.exceptionCount(otherBuffer, otherExceptions)) {
+      return false;
+    }
+    for (int i = 0; i < dates; i++) {
+      final int count = ScheduleCodec.exceptionIntervalCount(buffer, exceptions, i);
+      if (ScheduleCodec.exceptionDate(buffer, exceptions, i)
+          != ScheduleCodec.exceptionDate(otherBuffer, otherExceptions, i)
+          || count != ScheduleCodec.exceptionIntervalCount(otherBuffer, otherExceptions, i)) {
+        return false;
+      }
+      for (int j = 0; j < count; j++) {
+        if (ScheduleCodec.exceptionInterval(buffer, exceptions, i, j)
+            != ScheduleCodec.exceptionInterval(otherBuffer, otherExceptions, i, j)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Follows the same rules as {@link WeeklySchedule#isOpenAt(LocalDateTime)}. The exceptions of the date and of the
+   * day before are found by binary search.
+   */
+  static boolean isOpenAt(final ByteBuffer buffer, final int offset, final LocalDateTime dateTime) {
+    final int exceptions = ScheduleCodec.exceptions(buffer, offset);
+    if (exceptions < 0) {
+      return isOpenAt(buffer, offset, dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    }
+    final long epochDay = dateTime.toLocalDate().toEpochDay();
+    final int today = ScheduleCodec.findException(buffer, exceptions, epochDay);
+    final int yesterday = ScheduleCodec.findException(buffer, exceptions, epochDay - 1);
+    if (today < 0 && yesterday < 0) {
+      return isOpenAt(buffer, offset, dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    }
+    final int minute = dateTime.getHour() * 60 + dateTime.getMinute();
+    final int day = dateTime.getDayOfWeek().ordinal();
+    final int count = today < 0 ? ScheduleCodec.intervalCount(buffer, offset, day)
+        : ScheduleCodec.exceptionIntervalCount(buffer, exceptions, today);
+    for (int i = 0; i < count; i++) {
+      final int interval = today < 0 ? ScheduleCodec.interval(buffer, offset, day, i)
+          : ScheduleCodec.exceptionInterval(buffer, exceptions, today, i);
+      final int open = ScheduleCodec.open(interval);
+      final int close = ScheduleCodec.close(interval);
+      if (minute >= open && (minute < close || close <= open)) {
+        return true;
+      }
+    }
+    final int dayBefore = (day + 6) % 7;
+    final int countBefore = yesterday < 0 ? ScheduleCodec.intervalCount(buffer, offset, dayBefore)
+        : ScheduleCodec.exceptionIntervalCount(buffer, exceptions, yesterday);
+    for (int i = 0; i < countBefore; i++) {
+      final int interval = yesterday < 0 ? ScheduleCodec.interval(buffer, offset, dayBefore, i)
+          : ScheduleCodec.exceptionInterval(buffer, exceptions, yesterday, i);
+      if (ScheduleCodec.close(interval) <= ScheduleCodec.open(interval) && minute < ScheduleCodec.close(interval)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static boolean isOpenAt(final ByteBuffer buffer, final int offset, final DayOfWeek dayOfWeek, final LocalTime time) {
+    final int minute = time.getHour() * 60 + time.getMinute();
+    final int today = dayOfWeek.ordinal();
+    for (int i = ScheduleCodec.intervalCount(buffer, offset, today) - 1; i >= 0; i--) {
+      final int interval = ScheduleCodec.interval(buffer, offset, today, i);
+      final int open = ScheduleCodec.open(interval);
+      final int close = ScheduleCodec.close(interval);
+      if (minute >= open && (minute < close || close <= open)) {
+        return true;
+      }
+    }
+    final int yesterday = (today + 6) % 7;
+    for (int i = ScheduleCodec.intervalCount(buffer, offset, yesterday) - 1; i >= 0; i--) {
+      final int interval = ScheduleCodec.interval(buffer, offset, yesterday, i);
+      if (ScheduleCodec.close(interval) <= ScheduleCodec.open(interval) && minute < ScheduleCodec.close(interval)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
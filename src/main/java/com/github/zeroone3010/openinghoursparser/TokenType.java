@@ -5,10 +5,10 @@ import java.util.Arrays;
 
 enum TokenType {
   WEEKDAY(false), TIME(true), RANGE_INDICATOR(true), WHITE_SPACE(true),
-  OPENING_HOURS(false), WEEKDAY_EXPRESSION(false), TIME_RANGE(false), WEEKDAY_RANGE(false),
+  OPENING_HOURS(false), WEEKDAY_EXPRESSION(false), TIME_RANGE(false), MORE_TIME_RANGES(false), WEEKDAY_RANGE(false),
   SCHEDULE(false), MORE_SCHEDULES(false), SCHEDULE_SEPARATOR(true), END_OF_INPUT(true), EMPTY(true),
   MONDAY(true), TUESDAY(true), WEDNESDAY(true), THURSDAY(true), FRIDAY(true), SATURDAY(true), SUNDAY(true),
-  UNKNOWN(true);
+  UNKNOWN(true), DATE(true), OFF(true), DATE_EXPRESSION(false), DATE_RANGE(false), DATE_HOURS(false);
 
   private final boolean terminal;
 
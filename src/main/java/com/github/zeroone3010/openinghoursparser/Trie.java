@@ -0,0 +1,89 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable trie over sequences of ints, such as chars or unsigned bytes, that is walked one symbol at a time.
+ * The nodes are numbers, the root is 0, and the edges of each node are kept sorted in flat arrays.
+ */
+final class Trie {
+  static final int ROOT = 0;
+
+  private final int[] edgeStarts;
+  private final int[] labels;
+  private final int[] targets;
+  private final int[] values;
+
+  /**
+   * @param keys The keys, each of which ends in a node whose value is its index. If a key is given more than once,
+   *             the first one wins.
+   */
+  Trie(final List<int[]> keys) {
+    final List<TreeMap<Integer, Integer>> children = new ArrayList<>();
+    final List<Integer> nodeValues = new ArrayList<>();
+    children.add(new TreeMap<>());
+    nodeValues.add(-1);
+    for (int i = 0; i < keys.size(); i++) {
+      int node = ROOT;
+      for (final int symbol : keys.get(i)) {
+        Integer child = children.get(node).get(symbol);
+        if (child == null) {
+          child = children.size();
+          children.get(node).put(symbol, child);
+          children.add(new TreeMap<>());
+          nodeValues.add(-1);
+        }
+        node = child;
+      }
+      if (nodeValues.get(node) < 0) {
+        nodeValues.set(node, i);
+      }
+    }
+    edgeStarts = new int[children.size() + 1];
+    values = new int[children.size()];
+    int edges = 0;
+    for (int node = 0; node < children.size(); node++) {
+      edgeStarts[node] = edges;
+      edges += children.get(node).size();
+      values[node] = nodeValues.get(node);
+    }
+    edgeStarts[children.size()] = edges;
+    labels = new int[edges];
+    targets = new int[edges];
+    for (int node = 0; node < children.size(); node++) {
+      int edge = edgeStarts[node];
+      for (final Map.Entry<Integer, Integer> child : children.get(node).entrySet()) {
+        labels[edge] = child.getKey();
+        targets[edge] = child.getValue();
+        edge++;
+      }
+    }
+  }
+
+  /**
+   * @return The node reached from the given node by the given symbol, or -1 if there is none.
+   */
+  int step(final int node, final int symbol) {
+    final int start = edgeStarts[node];
+    final int edge = Arrays.binarySearch(labels, start, edgeStarts[node + 1], symbol);
+    return edge >= 0 ? targets[edge] : -1;
+  }
+
+  /**
+   * @return true if no key goes on from the given node.
+   */
+  boolean isLeaf(final int node) {
+    return edgeStarts[node] == edgeStarts[node + 1];
+  }
+
+  /**
+   * @return The index of the key that ends in the given node, or -1 if no key ends there.
+   */
+  int value(final int node) {
+    return values[node];
+  }
+}
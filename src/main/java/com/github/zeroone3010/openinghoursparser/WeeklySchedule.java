@@ -1,18 +1,455 @@
 package com.github.zeroone3010.openinghoursparser;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * The opening hours of each day of the week. Instances are immutable and can be shared between threads freely.
+ *
+ * A day may have several intervals, such as a morning and an afternoon shift. An interval whose closing time is not
+ * after its opening time stays open over midnight into the next day, until the closing time; if both times are the
+ * same, the place is open for 24 hours.
+ *
+ * A schedule may also have exceptions for single dates, such as public holidays, whose opening hours replace those
+ * of their days of the week. The methods that take a date or a {@link LocalDateTime} take the exceptions into
+ * account, and those that take a {@link DayOfWeek} do not.
+ */
 public final class WeeklySchedule {
-  private LinkedHashMap<DayOfWeek, DailySchedule> schedule;
+  private static final int DAYS = 7;
+  static final int MINUTES_PER_DAY = 24 * 60;
+  static final int MINUTES_PER_WEEK = DAYS * MINUTES_PER_DAY;
+  private static final short[] NO_MINUTES = new short[0];
+  private static final int END_BITS = 9;
+  private static final int END_MASK = (1 << END_BITS) - 1;
+  static final long FINGERPRINT_SEED = 0x4F70656E486F7572L;
 
-  private WeeklySchedule(final LinkedHashMap<DayOfWeek, DailySchedule> schedule) {
-    this.schedule = schedule;
+  /**
+   * The most intervals that one schedule can have over the whole week.
+   */
+  static final int MAX_INTERVALS = END_MASK / 2;
+
+  /**
+   * The opening and closing minutes of day of the intervals, in pairs, from Monday to Sunday and within each day
+   * as in {@link DailySchedule}.
+   */
+  final short[] minutes;
+
+  /**
+   * For each day of week, the index in {@link #minutes} at which the day ends, {@value #END_BITS} bits per day.
+   * A day begins where the previous one ends; a day that begins where it ends is closed.
+   */
+  private final long ends;
+
+  /**
+   * The times at which the place opens and closes, in pairs, as minutes from the beginning of Monday. The pairs
+   * are sorted and do not touch or overlap; an opening on Sunday that lasts into Monday is split in two.
+   */
+  private final short[] openIntervals;
+
+  final DateExceptions exceptions;
+
+  private WeeklySchedule(final short[] minutes, final long ends, final DateExceptions exceptions) {
+    this.minutes = minutes;
+    this.ends = ends;
+    this.exceptions = exceptions;
+    this.openIntervals = computeOpenIntervals();
   }
 
   public DailySchedule get(final DayOfWeek dayOfWeek) {
-    return schedule.get(dayOfWeek);
+    final int day = dayOfWeek.ordinal();
+    final int begin = begin(day);
+    if (begin == end(day)) {
+      return DailySchedule.closed();
+    }
+    return new DailySchedule(Arrays.copyOfRange(minutes, begin, end(day)));
+  }
+
+  /**
+   * @return The opening hours of the given date: those of its exception if it has one, and otherwise those of its
+   * day of the week.
+   */
+  public DailySchedule get(final LocalDate date) {
+    final int exception = exceptions.find(date.getYear(), date.getDayOfYear());
+    if (exception < 0) {
+      return get(date.getDayOfWeek());
+    }
+    final int begin = exceptions.begin(exception);
+    final int end = exceptions.end(exception);
+    return begin == end
+        ? DailySchedule.closed() : new DailySchedule(Arrays.copyOfRange(exceptions.minutes, begin, end));
+  }
+
+  /**
+   * @return The dates that have exceptions, in order.
+   */
+  public List<LocalDate> getExceptionDates() {
+    final List<LocalDate> dates = new ArrayList<>(exceptions.size());
+    for (final int date : exceptions.dates) {
+      dates.add(LocalDate.ofEpochDay(date));
+    }
+    return Collections.unmodifiableList(dates);
+  }
+
+  public boolean isOpenAt(final DayOfWeek dayOfWeek, final LocalTime time) {
+    return isOpenAt(minuteOfWeek(dayOfWeek, time));
+  }
+
+  /**
+   * Takes the exceptions of the date and of the day before it into account, in constant time.
+   */
+  public boolean isOpenAt(final LocalDateTime dateTime) {
+    final int minuteOfWeek = minuteOfWeek(dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    if (exceptions.size() == 0) {
+      return isOpenAt(minuteOfWeek);
+    }
+    return isOpenAt(dateTime.getYear(), dateTime.getDayOfYear(), minuteOfWeek);
+  }
+
+  private boolean isOpenAt(final int year, final int dayOfYear, final int minuteOfWeek) {
+    return isOpen(exceptions.find(year, dayOfYear), exceptions.findDayBefore(year, dayOfYear), minuteOfWeek);
+  }
+
+  /**
+   * @param today     The index of the exception of the day, or -1 if it has none.
+   * @param yesterday The index of the exception of the day before, or -1 if it has none.
+   */
+  private boolean isOpen(final int today, final int yesterday, final int minuteOfWeek) {
+    if (today < 0 && yesterday < 0) {
+      return isOpenAt(minuteOfWeek);
+    }
+    final int day = minuteOfWeek / MINUTES_PER_DAY;
+    final int minute = minuteOfWeek % MINUTES_PER_DAY;
+    final boolean openToday = today < 0
+        ? isOpenAt(minutes, begin(day), end(day), minute, false)
+        : isOpenAt(exceptions.minutes, exceptions.begin(today), exceptions.end(today), minute, false);
+    if (openToday) {
+      return true;
+    }
+    final int dayBefore = (day + DAYS - 1) % DAYS;
+    return yesterday < 0
+        ? isOpenAt(minutes, begin(dayBefore), end(dayBefore), minute, true)
+        : isOpenAt(exceptions.minutes, exceptions.begin(yesterday), exceptions.end(yesterday), minute, true);
+  }
+
+  /**
+   * @param minutes       Intervals as in {@link DailySchedule}.
+   * @param fromDayBefore Whether the intervals are those of the day before, of which only the part after midnight
+   *                      counts.
+   */
+  private static boolean isOpenAt(final short[] minutes, final int begin, final int end, final int minute,
+                                  final boolean fromDayBefore) {
+    for (int i = begin; i < end; i += 2) {
+      final int open = minutes[i];
+      final int close = minutes[i + 1];
+      if (fromDayBefore ? close <= open && minute < close : minute >= open && (minute < close || close <= open)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return The first moment at or after the given one at which the place opens, or null if it is always
+   * closed or always open.
+   */
+  public LocalDateTime nextOpening(final LocalDateTime dateTime) {
+    return next(dateTime, 0);
+  }
+
+  /**
+   * @return The first moment at or after the given one at which the place closes, or null if it is always
+   * closed or always open.
+   */
+  public LocalDateTime nextClosing(final LocalDateTime dateTime) {
+    return next(dateTime, 1);
+  }
+
+  /**
+   * @return A 64-bit hash of the opening hours and exceptions, which is the same for equal schedules in every JVM
+   * and every version of this library, so that it can be stored and compared with the fingerprints of later
+   * schedules. Unequal schedules have different fingerprints, except with a probability of about 2^-64.
+   */
+  public long fingerprint() {
+    long hash = FINGERPRINT_SEED;
+    for (int day = 0; day < DAYS; day++) {
+      hash = fingerprint(hash, (end(day) - begin(day)) / 2);
+      for (int i = begin(day); i < end(day); i += 2) {
+        hash = fingerprint(hash, minutes[i], minutes[i + 1]);
+      }
+    }
+    for (int i = 0; i < exceptions.size(); i++) {
+      hash = fingerprint(fingerprint(hash, exceptions.dates[i]), (exceptions.end(i) - exceptions.begin(i)) / 2);
+      for (int j = exceptions.begin(i); j < exceptions.end(i); j += 2) {
+        hash = fingerprint(hash, exceptions.minutes[j], exceptions.minutes[j + 1]);
+      }
+    }
+    return fingerprint(hash);
+  }
+
+  /**
+   * Adds the number of intervals of a day, or an epoch day, to a fingerprint.
+   */
+  static long fingerprint(final long hash, final int intervalCount) {
+    return (hash ^ intervalCount) * 0x9E3779B97F4A7C15L;
+  }
+
+  /**
+   * Adds an interval to a fingerprint.
+   */
+  static long fingerprint(final long hash, final int open, final int close) {
+    return fingerprint(hash, open << 16 | close);
+  }
+
+  /**
+   * @return The fingerprint of a schedule that has been added to the given hash from Monday to Sunday.
+   */
+  static long fingerprint(final long hash) {
+    long result = hash ^ hash >>> 30;
+    result *= 0xBF58476D1CE4E5B9L;
+    result ^= result >>> 27;
+    result *= 0x94D049BB133111EBL;
+    return result ^ result >>> 31;
+  }
+
+  boolean isOpenAt(final int minuteOfWeek) {
+    return (upperBound(minuteOfWeek) & 1) == 1;
+  }
+
+  short[] getOpenIntervals() {
+    return openIntervals;
+  }
+
+  private LocalDateTime next(final LocalDateTime dateTime, final int parity) {
+    final int minuteOfWeek = minuteOfWeek(dateTime.getDayOfWeek(), dateTime.toLocalTime());
+    final boolean betweenMinutes = dateTime.getSecond() != 0 || dateTime.getNano() != 0;
+    if (exceptions.size() > 0
+        && dateTime.toLocalDate().toEpochDay() - 1 <= exceptions.dates[exceptions.size() - 1]) {
+      return nextAroundExceptions(dateTime, parity);
+    }
+    final int boundary = nextBoundary(minuteOfWeek + (betweenMinutes ? 1 : 0), parity);
+    if (boundary < 0) {
+      return null;
+    }
+    return dateTime.truncatedTo(ChronoUnit.MINUTES).plusMinutes(boundary - minuteOfWeek);
+  }
+
+  /**
+   * Looks for the next opening or closing among the weekly opening hours up to the next date that an exception
+   * affects, i.e. the date of the exception and the day after it, and among the intervals of such dates one day at
+   * a time. The days between exceptions are thus skipped.
+   */
+  private LocalDateTime nextAroundExceptions(final LocalDateTime dateTime, final int parity) {
+    final LocalDateTime start = dateTime.truncatedTo(ChronoUnit.MINUTES);
+    final long startMinute = start.toLocalDate().toEpochDay() * MINUTES_PER_DAY + start.getHour() * 60
+        + start.getMinute();
+    long from = startMinute + (start.equals(dateTime) ? 0 : 1);
+    while (true) {
+      final long day = Math.floorDiv(from, MINUTES_PER_DAY);
+      final int next = exceptions.ceiling(day - 1);
+      final long exceptionDay = next < exceptions.size() ? exceptions.dates[next] : Long.MAX_VALUE;
+      final long boundary;
+      final long end;
+      if (exceptionDay > day) {
+        // Up to the next exception, the opening hours are the weekly ones.
+        final int minuteOfWeek = dayOfWeek(day) * MINUTES_PER_DAY + (int) (from - day * MINUTES_PER_DAY);
+        final int weekly = nextBoundary(minuteOfWeek, parity);
+        boundary = weekly < 0 ? Long.MAX_VALUE : from + weekly - minuteOfWeek;
+        if (exceptionDay == Long.MAX_VALUE && weekly < 0) {
+          return null;
+        }
+        end = exceptionDay == Long.MAX_VALUE ? Long.MAX_VALUE : exceptionDay * MINUTES_PER_DAY;
+      } else {
+        boundary = nextBoundaryOfDay(day, from, parity);
+        end = (day + 1) * MINUTES_PER_DAY;
+      }
+      if (boundary < end && isBoundary(boundary, parity)) {
+        return start.plusMinutes(boundary - startMinute);
+      }
+      from = boundary < end ? boundary + 1 : end;
+    }
+  }
+
+  /**
+   * @return The first opening or closing on the given day, at or after the given epoch minute, among the intervals
+   * of the day and the day before, or {@link Long#MAX_VALUE} if there is none.
+   */
+  private long nextBoundaryOfDay(final long day, final long from, final int parity) {
+    long best = Long.MAX_VALUE;
+    for (long source = day - 1; source <= day; source++) {
+      final int exception = exceptions.find(source);
+      final short[] intervals = exception < 0 ? minutes : exceptions.minutes;
+      final int dayOfWeek = dayOfWeek(source);
+      final int begin = exception < 0 ? begin(dayOfWeek) : exceptions.begin(exception);
+      final int end = exception < 0 ? end(dayOfWeek) : exceptions.end(exception);
+      for (int i = begin; i < end; i += 2) {
+        final int open = intervals[i];
+        final int close = intervals[i + 1];
+        final long boundary = source * MINUTES_PER_DAY
+            + (parity == 0 ? open : close + (close <= open ? MINUTES_PER_DAY : 0));
+        if (boundary >= from && boundary < (day + 1) * MINUTES_PER_DAY && boundary < best
+            && isBoundary(boundary, parity)) {
+          best = boundary;
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @return true if the place opens, or closes, at the given epoch minute.
+   */
+  private boolean isBoundary(final long epochMinute, final int parity) {
+    return isOpenAtEpochMinute(epochMinute) == (parity == 0) && isOpenAtEpochMinute(epochMinute - 1) != (parity == 0);
+  }
+
+  private boolean isOpenAtEpochMinute(final long epochMinute) {
+    final long day = Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    final int minuteOfWeek = dayOfWeek(day) * MINUTES_PER_DAY + (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+    return isOpen(exceptions.find(day), exceptions.find(day - 1), minuteOfWeek);
+  }
+
+  /**
+   * @return The ordinal of the day of the week of the epoch day; the epoch began on a Thursday.
+   */
+  private static int dayOfWeek(final long epochDay) {
+    return (int) Math.floorMod(epochDay + 3, DAYS);
+  }
+
+  /**
+   * @param from   A minute of week, at most {@link #MINUTES_PER_WEEK}.
+   * @param parity 0 for openings, 1 for closings.
+   * @return The first opening or closing at or after the given minute, which is in the next week if it is at least
+   * {@link #MINUTES_PER_WEEK}, or -1 if there is none.
+   */
+  private int nextBoundary(final int from, final int parity) {
+    if (from == 0) {
+      // A closing at the very end of the previous week happens on this Monday at midnight.
+      final int boundary = nextBoundary(MINUTES_PER_WEEK, parity);
+      return boundary < 0 ? -1 : boundary - MINUTES_PER_WEEK;
+    }
+    final int length = openIntervals.length;
+    final boolean wrapsAround = length > 0 && openIntervals[0] == 0 && openIntervals[length - 1] == MINUTES_PER_WEEK;
+    int i = lowerBound(from);
+    if ((i & 1) != parity) {
+      i++;
+    }
+    for (; i < 2 * length; i += 2) {
+      final int boundary = openIntervals[i % length] + (i < length ? 0 : MINUTES_PER_WEEK);
+      final boolean acrossEndOfWeek = boundary % MINUTES_PER_WEEK == 0;
+      if (!(wrapsAround && acrossEndOfWeek)) {
+        return boundary;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return The index of the first boundary that is not before the given minute.
+   */
+  private int lowerBound(final int minuteOfWeek) {
+    int low = 0;
+    int high = openIntervals.length;
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (openIntervals[middle] < minuteOfWeek) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @return The index of the first boundary that is after the given minute.
+   */
+  private int upperBound(final int minuteOfWeek) {
+    return lowerBound(minuteOfWeek + 1);
+  }
+
+  static int minuteOfWeek(final DayOfWeek dayOfWeek, final LocalTime time) {
+    return dayOfWeek.ordinal() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+  }
+
+  private short[] computeOpenIntervals() {
+    if (minutes.length == 0) {
+      return NO_MINUTES;
+    }
+    final long[] intervals = new long[minutes.length];
+    int count = 0;
+    for (int day = 0; day < DAYS; day++) {
+      for (int i = begin(day); i < end(day); i += 2) {
+        final int open = day * MINUTES_PER_DAY + minutes[i];
+        final int close = day * MINUTES_PER_DAY + minutes[i + 1] + (minutes[i + 1] <= minutes[i] ? MINUTES_PER_DAY : 0);
+        if (close > MINUTES_PER_WEEK) {
+          intervals[count++] = interval(open, MINUTES_PER_WEEK);
+          intervals[count++] = interval(0, close - MINUTES_PER_WEEK);
+        } else {
+          intervals[count++] = interval(open, close);
+        }
+      }
+    }
+    Arrays.sort(intervals, 0, count);
+
+    final short[] merged = new short[2 * count];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      final int open = (int) (intervals[i] >>> 32);
+      final int close = (int) intervals[i];
+      if (size > 0 && open <= merged[size - 1]) {
+        merged[size - 1] = (short) Math.max(merged[size - 1], close);
+      } else {
+        merged[size++] = (short) open;
+        merged[size++] = (short) close;
+      }
+    }
+    return size == merged.length ? merged : Arrays.copyOf(merged, size);
+  }
+
+  private static long interval(final int open, final int close) {
+    return (long) open << 32 | close;
+  }
+
+  int begin(final int day) {
+    return day == 0 ? 0 : end(day - 1);
+  }
+
+  int end(final int day) {
+    return (int) (ends >>> (END_BITS * day)) & END_MASK;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    final WeeklySchedule that = (WeeklySchedule) o;
+    return ends == that.ends && Arrays.equals(minutes, that.minutes) && exceptions.equals(that.exceptions);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * Long.hashCode(ends) + Arrays.hashCode(minutes)) + exceptions.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder result = new StringBuilder("WeeklySchedule{");
+    for (final DayOfWeek day : DayOfWeek.values()) {
+      result.append(day.ordinal() == 0 ? "" : ", ").append(day).append('=').append(get(day));
+    }
+    for (final LocalDate date : getExceptionDates()) {
+      result.append(", ").append(date).append('=').append(get(date));
+    }
+    return result.append('}').toString();
   }
 
   public static Builder builder() {
@@ -20,21 +457,127 @@ public final class WeeklySchedule {
   }
 
   public static class Builder {
-    private LinkedHashMap<DayOfWeek, DailySchedule> dailySchedules;
+    private final short[][] days = new short[DAYS][];
+    private final TreeMap<Integer, short[]> exceptions = new TreeMap<>();
+    private int intervals;
+    private int exceptionIntervals;
 
     public Builder() {
-      this.dailySchedules = new LinkedHashMap<>();
-      Arrays.asList(DayOfWeek.values()).forEach(day -> this.dailySchedules.put(day, DailySchedule.closed()));
+      Arrays.fill(days, NO_MINUTES);
     }
 
-
+    /**
+     * Sets the opening hours of the given day, replacing any that it had.
+     *
+     * @throws IllegalArgumentException If the week would have more intervals than fit in one schedule.
+     */
     public Builder add(final DayOfWeek dayOfWeek, final DailySchedule scheduleOfDay) {
-      this.dailySchedules.put(dayOfWeek, scheduleOfDay);
+      final int day = dayOfWeek.ordinal();
+      checkCapacity(intervals - days[day].length / 2 + scheduleOfDay.getIntervalCount());
+      intervals += scheduleOfDay.getIntervalCount() - days[day].length / 2;
+      days[day] = scheduleOfDay.minutes;
+      return this;
+    }
+
+    /**
+     * Adds an interval to the opening hours of the given day, unless the day has it already.
+     *
+     * @throws IllegalArgumentException If the week would have more intervals than fit in one schedule.
+     */
+    Builder addInterval(final DayOfWeek dayOfWeek, final int open, final int close) {
+      final int day = dayOfWeek.ordinal();
+      final short[] minutes = DailySchedule.insert(days[day], days[day].length, open, close);
+      checkCapacity(intervals - days[day].length / 2 + minutes.length / 2);
+      intervals += (minutes.length - days[day].length) / 2;
+      days[day] = minutes;
       return this;
     }
 
+    /**
+     * Sets the opening hours of the given date, replacing those of its day of the week and any that the date had.
+     * A {@link DailySchedule#closed()} day closes the place for the date.
+     *
+     * @throws IllegalArgumentException If the year of the date is not from 0 to 9999, or the schedule would have too
+     *                                  many exceptions.
+     */
+    public Builder addException(final LocalDate date, final DailySchedule scheduleOfDate) {
+      return setException(date.toEpochDay(), scheduleOfDate.minutes);
+    }
+
+    /**
+     * Adds an interval to the opening hours of the given date, which replace those of its day of the week, unless
+     * the date has it already.
+     *
+     * @throws IllegalArgumentException If the schedule would have too many exceptions.
+     */
+    Builder addExceptionInterval(final int epochDay, final int open, final int close) {
+      final short[] before = exceptions.getOrDefault(epochDay, NO_MINUTES);
+      return setException(epochDay, DailySchedule.insert(before, before.length, open, close));
+    }
+
+    /**
+     * Closes the place for the whole of the given date.
+     *
+     * @throws IllegalArgumentException If the schedule would have too many exceptions.
+     */
+    Builder closeOn(final int epochDay) {
+      return setException(epochDay, NO_MINUTES);
+    }
+
+    private Builder setException(final long epochDay, final short[] minutes) {
+      if (epochDay < DateExceptions.FIRST_DATE || epochDay > DateExceptions.LAST_DATE) {
+        throw new IllegalArgumentException("Exceptions can only be set for the years 0000 to 9999, not for "
+            + LocalDate.ofEpochDay(epochDay));
+      }
+      final short[] before = exceptions.get((int) epochDay);
+      final int previous = before == null ? 0 : before.length / 2;
+      if (before == null && exceptions.size() == DateExceptions.MAX_DATES) {
+        throw new IllegalArgumentException("A schedule can have exceptions for at most " + DateExceptions.MAX_DATES
+            + " dates");
+      }
+      if (exceptionIntervals - previous + minutes.length / 2 > DateExceptions.MAX_INTERVALS) {
+        throw new IllegalArgumentException("The exceptions of a schedule can have at most "
+            + DateExceptions.MAX_INTERVALS + " intervals");
+      }
+      exceptionIntervals += minutes.length / 2 - previous;
+      exceptions.put((int) epochDay, minutes);
+      return this;
+    }
+
+    private static void checkCapacity(final int intervals) {
+      if (intervals > MAX_INTERVALS) {
+        throw new IllegalArgumentException("A schedule can have at most " + MAX_INTERVALS + " intervals a week");
+      }
+    }
+
     public WeeklySchedule build() {
-      return new WeeklySchedule(dailySchedules);
+      final short[] minutes = intervals == 0 ? NO_MINUTES : new short[2 * intervals];
+      long ends = 0;
+      int end = 0;
+      for (int day = 0; day < DAYS; day++) {
+        System.arraycopy(days[day], 0, minutes, end, days[day].length);
+        end += days[day].length;
+        ends |= (long) end << (END_BITS * day);
+      }
+      return new WeeklySchedule(minutes, ends, buildExceptions());
+    }
+
+    private DateExceptions buildExceptions() {
+      if (exceptions.isEmpty()) {
+        return DateExceptions.NONE;
+      }
+      final int[] dates = new int[exceptions.size()];
+      final short[] minutes = new short[2 * exceptionIntervals];
+      final int[] ends = new int[exceptions.size()];
+      int i = 0;
+      int end = 0;
+      for (final Map.Entry<Integer, short[]> exception : exceptions.entrySet()) {
+        dates[i] = exception.getKey();
+        System.arraycopy(exception.getValue(), 0, minutes, end, exception.getValue().length);
+        end += exception.getValue().length;
+        ends[i++] = end;
+      }
+      return new DateExceptions(dates, minutes, ends);
     }
   }
 }
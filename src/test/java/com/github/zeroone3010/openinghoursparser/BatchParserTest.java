@@ -0,0 +1,70 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchParserTest {
+  @Test
+  void keepsTheOrderOfTheInputs() {
+    final List<String> inputs = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      inputs.add(String.format("Mon-Fri %02d:%02d-23:59", i / 60 % 24, i % 60));
+    }
+    final BatchResult result = new OpeningHours().parseAll(inputs);
+    assertEquals(inputs.size(), result.size());
+    assertTrue(result.getFailures().isEmpty());
+    for (int i = 0; i < inputs.size(); i++) {
+      assertEquals(LocalTime.of(i / 60 % 24, i % 60), result.getResults().get(i).getSchedule().get(DayOfWeek.MONDAY).getOpen());
+    }
+  }
+
+  @Test
+  void collectsFailuresWithTheirIndices() {
+    final List<String> inputs = Arrays.asList("Mon 10:00-18:00", "Mon 10:00", "Tue 10:00-18:00", null, "Foo 10:00-12:00");
+    final BatchResult result = new OpeningHours().parseAll(new LinkedList<>(inputs));
+    assertEquals(5, result.size());
+    assertEquals(3, result.getFailures().size());
+    assertEquals(1, result.getFailures().get(0).getIndex());
+    assertEquals(3, result.getFailures().get(1).getIndex());
+    assertEquals(4, result.getFailures().get(2).getIndex());
+    assertEquals("ValidationResult{false, Unknown token 'Foo '}", result.getFailures().get(2).getValidationResult().toString());
+    assertTrue(result.getResults().get(2).isValid());
+  }
+
+  @Test
+  void runsOnTheGivenExecutor() {
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      final List<String> inputs = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        inputs.add(i % 10 == 0 ? "invalid" : "Sat-Sun 10:00-14:00");
+      }
+      final BatchResult result = new OpeningHours().parseAll(inputs, executor, 3);
+      assertEquals(1000, result.size());
+      assertEquals(100, result.getFailures().size());
+      assertEquals(990, result.getFailures().get(99).getIndex());
+      assertFalse(result.getResults().get(990).isValid());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void parsesStreams() {
+    final BatchResult result = new OpeningHours().parseAll(Arrays.asList("Mon 10:00-18:00", "Mon").stream());
+    assertEquals(2, result.size());
+    assertEquals(1, result.getFailures().get(0).getIndex());
+  }
+}
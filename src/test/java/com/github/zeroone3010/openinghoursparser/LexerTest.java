@@ -0,0 +1,162 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LexerTest {
+  private static final List<Locale> LOCALES = Arrays.asList(Locale.ENGLISH, new Locale("fi", "FI"),
+      new Locale("sv", "SE"), Locale.GERMAN, Locale.FRENCH);
+
+  @Test
+  void tokenizesLikeTheRegularExpressionReference() {
+    final List<String> inputs = Arrays.asList("", " ", "-", "- ", "Mon", "Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00",
+        "Mon 10:00-18:00", "Mon 10:00 - Tue", "Mon-Sun 10:00-19:00 (except on Fridays)", "Foo  ", "foo,bar",
+        "Mon\t10:00-12:00\n", "x\u0085y z", "x\u2028 Mon", "1:00-2:00", "100:00", "Mo. 10:00-18:00", "lun.-ven.",
+        "ma-pe 08:00-16:00, la 10:00-14:00", "mån-fre 09:00-17:00", "MonTue", "Mon10:00-12:00",
+        "2026-12-24-2026-12-26 off", "2026-12-31 10:00-14:00", "2026-13-45off", "2026-1-1", "offMon");
+    for (final Locale locale : LOCALES) {
+      final LocalizedTokens localizedTokens = new LocalizedTokens(locale);
+      final Lexer lexer = new Lexer(localizedTokens);
+      for (final String input : inputs) {
+        assertEquals(reference(locale, input), lexer.tokenize(input), locale + ": '" + input + "'");
+        assertEquals(reference(locale, input), tokenizeUtf8(lexer, input), locale + ": '" + input + "'");
+      }
+    }
+  }
+
+  @Test
+  void tokenizesRandomInputLikeTheRegularExpressionReference() {
+    final Random random = new Random(42);
+    for (final Locale locale : LOCALES) {
+      final LocalizedTokens localizedTokens = new LocalizedTokens(locale);
+      final Lexer lexer = new Lexer(localizedTokens);
+      final List<String> fragments = new ArrayList<>(localizedTokens.getWeekdays().keySet());
+      fragments.addAll(Arrays.asList("-", ",", " ", "  ", "\t", "\n", "\u2028", "\u2029", "\u0085", "10:00", "1", ":", "x",
+          "ab", ".", "\u00e5", "\u20ac", "2026-12-24", "2026-", "off"));
+      for (int i = 0; i < 2000; i++) {
+        final StringBuilder input = new StringBuilder();
+        final int length = random.nextInt(12);
+        for (int j = 0; j < length; j++) {
+          input.append(fragments.get(random.nextInt(fragments.size())));
+        }
+        assertEquals(reference(locale, input.toString()), lexer.tokenize(input), locale + ": '" + input + "'");
+        assertEquals(reference(locale, input.toString()), tokenizeUtf8(lexer, input.toString()), locale + ": '" + input + "'");
+      }
+    }
+  }
+
+  @Test
+  void tokenizesManyLocalesLikeTheRegularExpressionReference() {
+    final Random random = new Random(7);
+    final List<List<Locale>> localeLists = Arrays.asList(LOCALES,
+        Arrays.asList(Locale.GERMAN, new Locale("fi", "FI"), Locale.ENGLISH, Locale.FRENCH, new Locale("sv", "SE")));
+    for (final List<Locale> locales : localeLists) {
+      final LocalizedTokens localizedTokens = new LocalizedTokens(locales);
+      final Lexer lexer = new Lexer(localizedTokens);
+      final List<String> fragments = new ArrayList<>(localizedTokens.getWeekdays().keySet());
+      fragments.addAll(Arrays.asList("-", ",", " ", "\n", "\u2028", "10:00", "x", "."));
+      for (int i = 0; i < 2000; i++) {
+        final StringBuilder input = new StringBuilder();
+        final int length = random.nextInt(10);
+        for (int j = 0; j < length; j++) {
+          input.append(fragments.get(random.nextInt(fragments.size())));
+        }
+        assertEquals(reference(locales, input.toString()), lexer.tokenize(input), locales + ": '" + input + "'");
+        assertEquals(reference(locales, input.toString()), tokenizeUtf8(lexer, input.toString()), locales + ": '" + input + "'");
+      }
+    }
+  }
+
+  private static List<Token> tokenizeUtf8(final Lexer lexer, final String input) {
+    final byte[] bytes = ("x" + input).getBytes(StandardCharsets.UTF_8);
+    final Lexer.Cursor cursor = lexer.cursor(ByteBuffer.wrap(bytes, 1, bytes.length - 1));
+    final List<Token> tokens = new ArrayList<>();
+    while (cursor.next()) {
+      tokens.add(cursor.token());
+    }
+    return tokens;
+  }
+
+  /**
+   * The original tokenizer, which matched a growing candidate against regular expressions.
+   */
+  private static List<Token> reference(final Locale locale, final String input) {
+    return reference(Collections.singletonList(locale), input);
+  }
+
+  /**
+   * The original tokenizer with the day names of many locales, of which the first one wins a conflict. A word that
+   * begins a longer one is held back until the longer ones can no longer match or the candidate becomes unknown.
+   */
+  private static List<Token> reference(final List<Locale> locales, final String input) {
+    final Map<String, TokenType> tokens = new LinkedHashMap<>();
+    final Set<String> words = new HashSet<>();
+    for (final Locale locale : locales) {
+      final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE", locale);
+      for (final DayOfWeek day : DayOfWeek.values()) {
+        tokens.putIfAbsent(Pattern.quote(formatter.format(day)), TokenType.valueOf(day.name()));
+        words.add(formatter.format(day));
+      }
+    }
+    words.add("off");
+    tokens.putIfAbsent(Pattern.quote("off"), TokenType.OFF);
+    tokens.put("-", TokenType.RANGE_INDICATOR);
+    tokens.put("\\d\\d:\\d\\d", TokenType.TIME);
+    tokens.put("\\d\\d\\d\\d-\\d\\d-\\d\\d", TokenType.DATE);
+    tokens.put("\\s", TokenType.WHITE_SPACE);
+    tokens.put(",", TokenType.SCHEDULE_SEPARATOR);
+    tokens.put(".+\\s", TokenType.UNKNOWN);
+
+    final List<Token> result = new ArrayList<>();
+    int startingPosition = 0;
+    Token word = null;
+    int wordEnd = 0;
+    for (int i = 1; i <= input.length(); i++) {
+      final String candidate = input.substring(startingPosition, i);
+      final TokenType type = tokens.keySet().stream()
+          .filter(candidate::matches)
+          .map(tokens::get)
+          .findFirst()
+          .orElse(null);
+      if (word != null && (words.stream().noneMatch(w -> w.startsWith(candidate)) || type == TokenType.UNKNOWN
+          || type == null && i == input.length())) {
+        result.add(word);
+        word = null;
+        startingPosition = wordEnd;
+        i = wordEnd;
+      } else if (words.contains(candidate)
+          && words.stream().anyMatch(w -> w.length() > candidate.length() && w.startsWith(candidate))) {
+        word = new Token(type, candidate);
+        wordEnd = i;
+      } else if (type != null) {
+        result.add(new Token(type, candidate));
+        startingPosition = i;
+        word = null;
+      } else if (i == input.length()) {
+        result.add(new Token(TokenType.UNKNOWN, candidate));
+      }
+    }
+    if (word != null) {
+      result.add(word);
+    }
+    result.removeIf(token -> token.getType().equals(TokenType.WHITE_SPACE));
+    return result;
+  }
+}
@@ -2,7 +2,12 @@ package com.github.zeroone3010.openinghoursparser;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
@@ -10,6 +15,10 @@ import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class OpeningHoursTest {
@@ -237,4 +246,209 @@ class OpeningHoursTest {
     assertFalse(openingHours.validate(openingHours.tokenize("Mon-Fri 10:00-19:00 (closed next week), Sat-Sun 12:00-16:00")).isValid());
   }
 
-}
\ No newline at end of file
+  @Test
+  void severalTimeRangesPerDay() {
+    final OpeningHours openingHours = new OpeningHours();
+    final WeeklySchedule schedule = openingHours.parse("Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00").getSchedule();
+    final DailySchedule split = new DailySchedule(LocalTime.of(8, 0), LocalTime.of(12, 0))
+        .with(LocalTime.of(13, 0), LocalTime.of(17, 0));
+    assertEquals(split, schedule.get(DayOfWeek.MONDAY));
+    assertEquals(split, schedule.get(DayOfWeek.FRIDAY));
+    assertEquals(new DailySchedule(LocalTime.of(10, 0), LocalTime.of(14, 0)), schedule.get(DayOfWeek.SATURDAY));
+    assertFalse(schedule.isOpenAt(DayOfWeek.TUESDAY, LocalTime.of(12, 30)));
+
+    // Schedules of the same day add up instead of replacing each other.
+    assertEquals(schedule, openingHours.parse("Mon-Fri 13:00-17:00, Sat 10:00-14:00, Mon-Fri 08:00-12:00").getSchedule());
+  }
+
+  @Test
+  void timeRangesMayLastOverMidnight() {
+    final WeeklySchedule schedule = new OpeningHours().parse("Fri 18:00-20:00 22:00-02:00").getSchedule();
+    assertEquals(2, schedule.get(DayOfWeek.FRIDAY).getIntervalCount());
+    assertTrue(schedule.isOpenAt(DayOfWeek.FRIDAY, LocalTime.of(19, 0)));
+    assertFalse(schedule.isOpenAt(DayOfWeek.FRIDAY, LocalTime.of(21, 0)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.SATURDAY, LocalTime.of(1, 59)));
+    assertTrue(schedule.get(DayOfWeek.SATURDAY).isClosed());
+  }
+
+  @Test
+  void tooManyTimeRangesAreInvalid() {
+    final StringBuilder input = new StringBuilder("Mon-Sun");
+    for (int i = 0; i < 40; i++) {
+      input.append(String.format(" %02d:%02d-%02d:%02d", i / 2, i % 2 * 30, i / 2, i % 2 * 30 + 15));
+    }
+    final ParseResult result = new OpeningHours().parse(input);
+    assertEquals(new ValidationResult(false, "A schedule can have at most 255 intervals a week"),
+        result.getValidationResult());
+  }
+
+  @Test
+  void parseAgreesWithTokenizeValidateAndCompile() {
+    final OpeningHours openingHours = new OpeningHours();
+    final List<String> inputs = Arrays.asList("", "   ", "Mon 10:00-18:00", "Mon 10:00-18:00, Tue-Sun 12:00-20:00",
+        " Fri -  Sun   09:00  - 22:00  ", "Mon-Wed 10:00-18:00, Thu-Sun 12:00-20:00, Mon 08:00-09:00",
+        "-", "Mon", "Mon 10:00 - Tue", "Mon-Tue 10:00-12:00, Wed - Fri 08:00-", "Mon-Tue Mon-Tue, Mon-Tue Mon-Tue",
+        "Foo", "Mon 12:00-13:00, zok", "Mon 10:00 - Tue (closed)", "Mon-Sun 10:00-19:00 something",
+        "Mon-Fri 08:00-12:00 13:00-17:00, Fri 22:00-02:00", "Mon 08:00-12:00 13:00",
+        "Mon-Fri 09:00-17:00, 2026-12-24-2026-12-26 off, 2026-12-31 10:00-14:00", "2026-12-24 off", "2026-12-24",
+        "2026-12-24 - off", "Mon off", "2026-12-31 10:00-14:00 22:00-02:00, Sat 10:00-12:00", "2026-1-01 off");
+    for (final String input : inputs) {
+      final List<Token> tokens = openingHours.tokenize(input);
+      final ValidationResult validationResult = openingHours.validate(tokens);
+      final ParseResult parseResult = openingHours.parse(input);
+      assertEquals(validationResult.isValid(), parseResult.isValid(), input);
+      assertEquals(validationResult.toString(), parseResult.getValidationResult().toString(), input);
+      if (validationResult.isValid()) {
+        final WeeklySchedule expected = openingHours.compile(tokens);
+        for (final DayOfWeek day : DayOfWeek.values()) {
+          assertEquals(expected.get(day), parseResult.getSchedule().get(day), input + " " + day);
+        }
+        assertEquals(expected, parseResult.getSchedule(), input);
+      } else {
+        assertNull(parseResult.getSchedule());
+      }
+    }
+  }
+
+  @Test
+  void parseRejectsTimesThatDoNotExist() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ParseResult result = openingHours.parse("Mon 10:00-25:00");
+    assertFalse(result.isValid());
+    assertEquals("ValidationResult{false, Invalid time '25:00'}", result.getValidationResult().toString());
+    assertThrows(DateTimeException.class, () -> openingHours.compile(openingHours.tokenize("Mon 10:60-12:00")));
+  }
+
+  @Test
+  void dateExceptionsReplaceTheirDaysOfTheWeek() {
+    final ParseResult result = new OpeningHours()
+        .parse("Mon-Fri 09:00-17:00, 2026-12-24-2026-12-26 off, 2026-12-31 10:00-14:00 22:00-02:00");
+    assertTrue(result.isValid());
+    final WeeklySchedule schedule = result.getSchedule();
+    assertEquals(Arrays.asList(LocalDate.of(2026, 12, 24), LocalDate.of(2026, 12, 25), LocalDate.of(2026, 12, 26),
+        LocalDate.of(2026, 12, 31)), schedule.getExceptionDates());
+    assertEquals(DailySchedule.closed(), schedule.get(LocalDate.of(2026, 12, 24)));
+    assertEquals(new DailySchedule(LocalTime.of(9, 0), LocalTime.of(17, 0)), schedule.get(LocalDate.of(2026, 12, 23)));
+    assertEquals(DailySchedule.closed(), schedule.get(LocalDate.of(2026, 12, 27)));
+
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2026, 12, 23, 12, 0)));
+    assertFalse(schedule.isOpenAt(LocalDateTime.of(2026, 12, 24, 12, 0)));
+    assertFalse(schedule.isOpenAt(LocalDateTime.of(2026, 12, 25, 12, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2026, 12, 28, 12, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2026, 12, 31, 13, 59)));
+    assertFalse(schedule.isOpenAt(LocalDateTime.of(2026, 12, 31, 14, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2027, 1, 1, 1, 59)));
+    assertFalse(schedule.isOpenAt(LocalDateTime.of(2027, 1, 1, 2, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2027, 1, 1, 12, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2027, 12, 24, 12, 0)));
+
+    assertEquals(LocalDateTime.of(2026, 12, 28, 9, 0), schedule.nextOpening(LocalDateTime.of(2026, 12, 23, 17, 0)));
+    assertEquals(LocalDateTime.of(2026, 12, 31, 10, 0), schedule.nextOpening(LocalDateTime.of(2026, 12, 30, 17, 0)));
+    assertEquals(LocalDateTime.of(2027, 1, 1, 2, 0), schedule.nextClosing(LocalDateTime.of(2026, 12, 31, 23, 0)));
+    assertEquals(LocalDateTime.of(2027, 1, 1, 9, 0), schedule.nextOpening(LocalDateTime.of(2027, 1, 1, 2, 0)));
+    assertEquals(LocalDateTime.of(2027, 1, 11, 9, 0), schedule.nextOpening(LocalDateTime.of(2027, 1, 9, 0, 0)));
+  }
+
+  @Test
+  void findsOpeningsAndClosingsAtDistantDateExceptions() {
+    final WeeklySchedule alwaysOpen = new OpeningHours().parse("Mon-Sun 00:00-00:00, 9999-12-30 off").getSchedule();
+    assertEquals(LocalDateTime.of(9999, 12, 30, 0, 0), alwaysOpen.nextClosing(LocalDateTime.of(2026, 10, 20, 12, 0)));
+    assertEquals(LocalDateTime.of(9999, 12, 31, 0, 0), alwaysOpen.nextOpening(LocalDateTime.of(2026, 10, 20, 12, 0)));
+
+    final WeeklySchedule closed = new OpeningHours().parse("9999-12-30 22:00-02:00").getSchedule();
+    assertEquals(LocalDateTime.of(9999, 12, 30, 22, 0), closed.nextOpening(LocalDateTime.of(2026, 10, 20, 12, 0)));
+    assertEquals(LocalDateTime.of(9999, 12, 31, 2, 0), closed.nextClosing(LocalDateTime.of(2026, 10, 20, 12, 0)));
+    assertNull(closed.nextOpening(LocalDateTime.of(9999, 12, 30, 22, 1)));
+
+    final WeeklySchedule lateSundays = new OpeningHours().parse("Sun 23:00-00:00, 2026-12-26 off").getSchedule();
+    assertEquals(LocalDateTime.of(2026, 12, 28, 0, 0), lateSundays.nextClosing(LocalDateTime.of(2026, 12, 27, 23, 30)));
+  }
+
+  @Test
+  void parseRejectsDatesThatDoNotExist() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ParseResult result = openingHours.parse("Mon 10:00-18:00, 2026-02-30 off");
+    assertFalse(result.isValid());
+    assertEquals("ValidationResult{false, Invalid date '2026-02-30'}", result.getValidationResult().toString());
+    assertTrue(openingHours.parse("2028-02-29 off").isValid());
+    assertThrows(DateTimeException.class, () -> openingHours.compile(openingHours.tokenize("2027-02-29 off")));
+  }
+
+  @Test
+  void parseRejectsDateRangesThatEndBeforeTheyStart() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ParseResult result = openingHours.parse("Mon 10:00-18:00, 2026-12-26-2026-12-24 off");
+    assertFalse(result.isValid());
+    assertEquals("ValidationResult{false, Invalid date range '2026-12-26-2026-12-24'}",
+        result.getValidationResult().toString());
+    assertThrows(DateTimeException.class,
+        () -> openingHours.compile(openingHours.tokenize("2026-12-26-2026-12-24 10:00-12:00")));
+    assertEquals(1, openingHours.parse("2026-12-24-2026-12-24 off").getSchedule().getExceptionDates().size());
+  }
+
+  @Test
+  void parsesUtf8BytesLikeStrings() {
+    final List<String> inputs = Arrays.asList("", "Mon 10:00-18:00", "Mon 10:00-25:00", "Mon 10:00 - Tue (closed)",
+        "mån-fre 09:00-17:00, lör 10:00-14:00", "sön 10:00-14:00 \u2028 x", "ma-pe 08:00-16:00", "Foo\u0085 Mon",
+        "lör 10:00-14:00, \u20ac", "mån 09:00-17:00, 2026-12-24-2026-12-26 off", "2026-02-30 off");
+    for (final Locale locale : Arrays.asList(Locale.ENGLISH, new Locale("sv", "SE"), new Locale("fi", "FI"))) {
+      final OpeningHours openingHours = new OpeningHours(Grammars.defaultGrammar(), locale);
+      for (final String input : inputs) {
+        final byte[] bytes = ("xx" + input + "yy").getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        buffer.limit(bytes.length - 2).position(2);
+        final String expected = openingHours.parse(input).toString();
+        assertEquals(expected, openingHours.parse(bytes, 2, bytes.length - 4).toString(), locale + ": " + input);
+        assertEquals(expected, openingHours.parse(buffer).toString(), locale + ": " + input);
+        assertEquals(2, buffer.position());
+      }
+    }
+  }
+
+  @Test
+  void detectsTheLocaleOfTheDayNames() {
+    final Locale finnish = new Locale("fi", "FI");
+    final Locale swedish = new Locale("sv", "SE");
+    final OpeningHours openingHours = OpeningHours.of(Grammars.defaultGrammar(), Arrays.asList(Locale.ENGLISH, finnish, swedish));
+    assertSame(openingHours, OpeningHours.of(Grammars.defaultGrammar(), Arrays.asList(Locale.ENGLISH, finnish, swedish)));
+
+    final ParseResult english = openingHours.parse("Mon-Fri 08:00-20:00");
+    assertEquals(Locale.ENGLISH, english.getLocale());
+    assertEquals(new OpeningHours().parse("Mon-Fri 08:00-20:00").getSchedule(), english.getSchedule());
+    final ParseResult finnishResult = openingHours.parse("ma-pe 08:00-16:00, la 10:00-14:00");
+    assertEquals(finnish, finnishResult.getLocale());
+    assertEquals(OpeningHours.of(finnish).parse("ma-pe 08:00-16:00, la 10:00-14:00").getSchedule(), finnishResult.getSchedule());
+    assertEquals(swedish, openingHours.parse("mån-fre 09:00-17:00").getLocale());
+    assertEquals(finnish, openingHours.parse("ma-pe 08:00-16:00, Sat 10:00-14:00").getLocale());
+    assertNull(openingHours.parse("").getLocale());
+    assertNull(openingHours.parse("Mon 10:00").getLocale());
+    assertEquals(Locale.ENGLISH, new OpeningHours().parse("Sun 10:00-12:00").getLocale());
+  }
+
+  @Test
+  void takesTheLongestDayNameOfAllLocales() {
+    final Locale finnish = new Locale("fi", "FI");
+    final OpeningHours openingHours = new OpeningHours(Grammars.defaultGrammar(),
+        Arrays.asList(Locale.ENGLISH, Locale.GERMAN, finnish, Locale.FRENCH));
+    final ParseResult french = openingHours.parse("mar. 10:00-12:00");
+    assertTrue(french.isValid(), french.toString());
+    assertEquals(OpeningHours.of(Locale.FRENCH).parse("mar. 10:00-12:00").getSchedule(), french.getSchedule());
+    assertEquals(Locale.FRENCH, french.getLocale());
+    final ParseResult mixed = openingHours.parse("ma-mar. 10:00-12:00");
+    assertTrue(mixed.isValid(), mixed.toString());
+    assertEquals(new OpeningHours().parse("Mon-Tue 10:00-12:00").getSchedule(), mixed.getSchedule());
+    assertTrue(openingHours.isValid("ma-mar. 10:00-12:00"));
+    assertTrue(openingHours.isValid("ma 10:00-12:00"));
+    assertEquals(2, openingHours.findInvalidOffset("mar 10:00-12:00"));
+  }
+
+  @Test
+  void sharedParsersAreBuiltOncePerGrammarAndLocale() {
+    final Locale finnish = new Locale("fi", "FI");
+    OpeningHours.warmUp(Grammars.defaultGrammar(), Locale.ENGLISH, finnish);
+    assertSame(OpeningHours.of(finnish), OpeningHours.of(Grammars.defaultGrammar(), finnish));
+    assertNotSame(OpeningHours.of(finnish), OpeningHours.of(Locale.ENGLISH));
+    assertTrue(OpeningHours.of(finnish).parse("ma-pe 08:00-16:00").isValid());
+    assertFalse(OpeningHours.of(Locale.ENGLISH).parse("ma-pe 08:00-16:00").isValid());
+  }
+}
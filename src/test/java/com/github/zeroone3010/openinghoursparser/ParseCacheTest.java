@@ -0,0 +1,90 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseCacheTest {
+  @Test
+  void cachesValidAndInvalidResults() {
+    final OpeningHours openingHours = new OpeningHours().withCache(100);
+    final ParseResult valid = openingHours.parse("Mon 10:00-18:00");
+    final ParseResult invalid = openingHours.parse("Mon 10:00");
+    assertSame(valid, openingHours.parse("Mon 10:00-18:00"));
+    assertSame(invalid, openingHours.parse(new StringBuilder("Mon 10:00")));
+    assertTrue(valid.isValid());
+    assertFalse(invalid.isValid());
+
+    final ParseCache cache = openingHours.getCache();
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedResult() {
+    final OpeningHours openingHours = new OpeningHours().withCache(1);
+    final ParseResult monday = openingHours.parse("Mon 10:00-18:00");
+    openingHours.parse("Tue 10:00-18:00");
+    assertEquals(1, openingHours.getCache().getEvictionCount());
+    assertEquals(1, openingHours.getCache().size());
+    assertTrue(monday != openingHours.parse("Mon 10:00-18:00"));
+    assertEquals(3, openingHours.getCache().getMissCount());
+  }
+
+  @Test
+  void neverHoldsMoreThanItsMaximumSize() {
+    final OpeningHours openingHours = new OpeningHours().withCache(50);
+    for (int i = 0; i < 1000; i++) {
+      openingHours.parse(String.format("Mon %02d:%02d-23:00", i / 60 % 24, i % 60));
+    }
+    assertTrue(openingHours.getCache().size() <= 50);
+    assertEquals(1000 - openingHours.getCache().size(), openingHours.getCache().getEvictionCount());
+  }
+
+  @Test
+  void canBeSharedBetweenThreads() throws Exception {
+    final OpeningHours openingHours = new OpeningHours().withCache(20);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 2000; i++) {
+            final int hour = i % 30 % 24;
+            final ParseResult result = openingHours.parse(String.format("Mon-Fri %02d:00-23:00", hour));
+            assertEquals(LocalTime.of(hour, 0), result.getSchedule().get(DayOfWeek.WEDNESDAY).getOpen());
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    final ParseCache cache = openingHours.getCache();
+    assertEquals(8 * 2000, cache.getHitCount() + cache.getMissCount());
+    assertTrue(cache.size() <= 20);
+  }
+
+  @Test
+  void isOptional() {
+    assertNull(new OpeningHours().getCache());
+    assertThrows(IllegalArgumentException.class, () -> new OpeningHours().withCache(0));
+  }
+}
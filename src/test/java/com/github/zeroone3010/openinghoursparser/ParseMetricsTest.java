@@ -0,0 +1,109 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseMetricsTest {
+  @Test
+  void countsParsesAndTheirFailures() {
+    final ParseMetrics metrics = new ParseMetrics();
+    final OpeningHours openingHours = new OpeningHours().withListener(metrics);
+    assertTrue(openingHours.parse("Mon 10:00-18:00").isValid());
+    openingHours.parse("Mon 10:00-18:00 Foo");
+    openingHours.parse("Mon-Fri, 10:00-18:00");
+    openingHours.parse("Mon 10:00");
+    openingHours.parse("Mon 25:00-26:00");
+    openingHours.parse("");
+    openingHours.parse("Sat 10:00-14:00".getBytes(StandardCharsets.UTF_8), 0, 15);
+
+    assertEquals(7, metrics.getCount(ParseListener.Phase.PARSE));
+    assertTrue(metrics.getNanos(ParseListener.Phase.PARSE) > 0);
+    assertEquals(0, metrics.getCount(ParseListener.Phase.TOKENIZE));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.UNKNOWN_TOKEN));
+    assertEquals(2, metrics.getFailures(ParseListener.Failure.GRAMMAR_MISMATCH));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.INVALID_TIME));
+    // Lengths 0, 9, 15, 15, 15, 19 and 20.
+    assertArrayEquals(new long[]{1, 0, 0, 0, 4, 2}, metrics.getInputLengthHistogram());
+
+    metrics.reset();
+    assertEquals(0, metrics.getCount(ParseListener.Phase.PARSE));
+    assertArrayEquals(new long[0], metrics.getInputLengthHistogram());
+  }
+
+  @Test
+  void timesTheSeparatePhases() {
+    final ParseMetrics metrics = new ParseMetrics();
+    final OpeningHours openingHours = new OpeningHours().withListener(metrics);
+    final List<Token> tokens = openingHours.tokenize("Mon 10:00-18:00");
+    openingHours.validate(tokens);
+    openingHours.compile(tokens);
+    openingHours.validate(openingHours.tokenize("Foo"));
+    openingHours.validate(openingHours.tokenize("Mon"));
+    assertThrows(DateTimeException.class, () -> openingHours.compile(openingHours.tokenize("Mon 25:00-26:00")));
+
+    assertEquals(4, metrics.getCount(ParseListener.Phase.TOKENIZE));
+    assertEquals(3, metrics.getCount(ParseListener.Phase.VALIDATE));
+    assertEquals(2, metrics.getCount(ParseListener.Phase.COMPILE));
+    assertEquals(0, metrics.getCount(ParseListener.Phase.PARSE));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.UNKNOWN_TOKEN));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.GRAMMAR_MISMATCH));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.INVALID_TIME));
+  }
+
+  @Test
+  void timesValidationWithoutParsing() {
+    final ParseMetrics metrics = new ParseMetrics();
+    final OpeningHours openingHours = new OpeningHours().withListener(metrics);
+    assertTrue(openingHours.isValid("Mon 10:00-18:00"));
+    assertFalse(openingHours.isValid("Mon 10:00-18:00 Foo"));
+    assertEquals(3, openingHours.findInvalidOffset("Mon, 10:00-18:00"));
+    assertEquals(3, openingHours.findInvalidOffset("Mon"));
+
+    assertEquals(4, metrics.getCount(ParseListener.Phase.RECOGNIZE));
+    assertTrue(metrics.getNanos(ParseListener.Phase.RECOGNIZE) > 0);
+    assertEquals(0, metrics.getCount(ParseListener.Phase.PARSE));
+    assertEquals(1, metrics.getFailures(ParseListener.Failure.UNKNOWN_TOKEN));
+    assertEquals(2, metrics.getFailures(ParseListener.Failure.GRAMMAR_MISMATCH));
+    // Lengths 3, 15, 16 and 19.
+    assertArrayEquals(new long[]{0, 0, 1, 0, 1, 2}, metrics.getInputLengthHistogram());
+  }
+
+  @Test
+  void cachedResultsAreNotReported() {
+    final ParseMetrics metrics = new ParseMetrics();
+    final OpeningHours openingHours = new OpeningHours().withListener(metrics).withCache(10);
+    openingHours.parse("Mon 10:00-18:00");
+    openingHours.parse("Mon 10:00-18:00");
+    assertEquals(1, metrics.getCount(ParseListener.Phase.PARSE));
+    assertEquals(1, openingHours.getCache().getHitCount());
+  }
+
+  @Test
+  void canBeRegisteredAsAnMXBean() throws Exception {
+    final ParseMetrics metrics = new ParseMetrics();
+    new OpeningHours().withListener(metrics).parse("Foo");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName("com.github.zeroone3010.openinghoursparser:type=ParseMetrics,name=test");
+    server.registerMBean(metrics.asMXBean(), name);
+    try {
+      assertEquals(1L, server.getAttribute(name, "ParseCount"));
+      assertEquals(1L, server.getAttribute(name, "UnknownTokenFailures"));
+      server.invoke(name, "reset", new Object[0], new String[0]);
+      assertEquals(0L, server.getAttribute(name, "ParseCount"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
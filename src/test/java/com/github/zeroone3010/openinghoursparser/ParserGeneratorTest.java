@@ -0,0 +1,60 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParserGeneratorTest {
+  private static final List<String> FRAGMENTS = Arrays.asList("Mon", "Fri", "10:00", "-", ",", "x ");
+
+  @Test
+  void checkedInParserIsUpToDate() throws IOException {
+    final String checkedIn = new String(Files.readAllBytes(
+        Paths.get("src/main/java/com/github/zeroone3010/openinghoursparser/DefaultGrammarParser.java")), StandardCharsets.UTF_8);
+    assertEquals(ParserGenerator.generateDefault(), checkedIn, "Run ParserGenerator.main to regenerate the parser");
+  }
+
+  @Test
+  void generatedParserAgreesWithTheParsingTable() {
+    final OpeningHours generated = new OpeningHours();
+    // The same grammar in another order is not recognised as the default one, so it is parsed through the table.
+    final List<Rule> reordered = new ArrayList<>(Grammars.defaultGrammar());
+    Collections.reverse(reordered);
+    final OpeningHours table = new OpeningHours(reordered, Locale.ENGLISH);
+
+    assertAgree(table, generated, "", 7);
+  }
+
+  /**
+   * Compares the results of the input and of every input that a number of fragments more can be appended to it.
+   */
+  private static void assertAgree(final OpeningHours expected, final OpeningHours actual, final String input,
+                                  final int fragments) {
+    assertEquals(expected.parse(input).toString(), actual.parse(input).toString(), input);
+    if (fragments > 0) {
+      for (final String fragment : FRAGMENTS) {
+        assertAgree(expected, actual, input + " " + fragment, fragments - 1);
+      }
+    }
+  }
+
+  @Test
+  void longListsOfSchedulesDoNotGrowTheStack() {
+    final StringBuilder input = new StringBuilder("Mon 10:00-12:00");
+    for (int i = 0; i < 100_000; i++) {
+      input.append(", Tue 10:00-12:00");
+    }
+    assertTrue(new OpeningHours().parse(input).isValid());
+  }
+}
@@ -0,0 +1,123 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParserTest {
+  private static final List<TokenType> ALPHABET = Arrays.asList(TokenType.MONDAY, TokenType.FRIDAY, TokenType.TIME,
+      TokenType.RANGE_INDICATOR, TokenType.SCHEDULE_SEPARATOR);
+
+  @Test
+  void defaultGrammarAcceptsExactlyItsLanguage() {
+    assertAcceptsExactlyTheLanguageOf(Grammars.defaultGrammar(), 8);
+  }
+
+  @Test
+  void grammarWithOptionalTimesAcceptsExactlyItsLanguage() {
+    final List<Rule> grammar = new ArrayList<>();
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.SCHEDULE)));
+    grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.WEEKDAY, TokenType.TIME_RANGE, TokenType.MORE_SCHEDULES)));
+    grammar.add(new Rule(TokenType.MORE_SCHEDULES, asList(TokenType.SCHEDULE_SEPARATOR, TokenType.SCHEDULE)));
+    grammar.add(new Rule(TokenType.MORE_SCHEDULES, asList(TokenType.EMPTY)));
+    grammar.add(new Rule(TokenType.WEEKDAY, asList(TokenType.MONDAY)));
+    grammar.add(new Rule(TokenType.WEEKDAY, asList(TokenType.FRIDAY)));
+    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.TIME, TokenType.RANGE_INDICATOR, TokenType.TIME)));
+    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.EMPTY)));
+    assertAcceptsExactlyTheLanguageOf(grammar, 7);
+  }
+
+  @Test
+  void followSetsPropagateThroughChainsOfNullableNonterminals() {
+    // The FOLLOW set of the start symbol reaches TIME_RANGE only through two other nonterminals, listed before it.
+    final List<Rule> grammar = new ArrayList<>();
+    grammar.add(new Rule(TokenType.WEEKDAY_RANGE, asList(TokenType.TIME_RANGE)));
+    grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.WEEKDAY_RANGE)));
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.SCHEDULE, TokenType.TIME)));
+    grammar.add(new Rule(TokenType.MORE_SCHEDULES, asList(TokenType.MONDAY, TokenType.WEEKDAY)));
+    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.MONDAY)));
+    grammar.add(new Rule(TokenType.TIME_RANGE, asList(TokenType.EMPTY)));
+    grammar.add(new Rule(TokenType.WEEKDAY, asList(TokenType.FRIDAY)));
+    assertAcceptsExactlyTheLanguageOf(grammar, 4);
+  }
+
+  @Test
+  void startSymbolMayAppearOnTheRightHandSide() {
+    final List<Rule> grammar = new ArrayList<>();
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.MONDAY, TokenType.OPENING_HOURS, TokenType.FRIDAY)));
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.EMPTY)));
+    assertAcceptsExactlyTheLanguageOf(grammar, 6);
+  }
+
+  @Test
+  void ambiguousGrammarIsNotLL1() {
+    final List<Rule> grammar = new ArrayList<>();
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.WEEKDAY, TokenType.TIME)));
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.WEEKDAY, TokenType.RANGE_INDICATOR)));
+    grammar.add(new Rule(TokenType.WEEKDAY, asList(TokenType.MONDAY)));
+    assertThrows(IllegalStateException.class, () -> new Parser(grammar));
+  }
+
+  private static void assertAcceptsExactlyTheLanguageOf(final List<Rule> grammar, final int maxLength) {
+    final Parser parser = new Parser(grammar);
+    final List<List<TokenType>> inputs = new ArrayList<>();
+    inputs.add(Collections.emptyList());
+    for (int i = 0; i < inputs.size(); i++) {
+      final List<TokenType> input = inputs.get(i);
+      if (!input.isEmpty()) {
+        final List<Token> tokens = new ArrayList<>();
+        input.forEach(type -> tokens.add(new Token(type, type.name())));
+        assertEquals(derives(grammar, TokenType.getStartSymbol(), input, 0).contains(input.size()),
+            parser.validate(tokens).isValid(), input.toString());
+      }
+      if (input.size() < maxLength) {
+        for (final TokenType type : ALPHABET) {
+          final List<TokenType> longer = new ArrayList<>(input);
+          longer.add(type);
+          inputs.add(longer);
+        }
+      }
+    }
+  }
+
+  /**
+   * A naive recognizer for grammars without left recursion.
+   *
+   * @return The positions at which the given symbol, when started at the given position, can end.
+   */
+  private static Set<Integer> derives(final List<Rule> grammar, final TokenType symbol,
+                                      final List<TokenType> input, final int position) {
+    final Set<Integer> ends = new HashSet<>();
+    if (symbol.isEmpty()) {
+      ends.add(position);
+    } else if (symbol.isTerminal()) {
+      if (position < input.size() && input.get(position) == symbol) {
+        ends.add(position + 1);
+      }
+    } else {
+      for (final Rule rule : grammar) {
+        if (rule.getLeft() == symbol) {
+          Set<Integer> positions = Collections.singleton(position);
+          for (final TokenType right : rule.getRight()) {
+            final Set<Integer> next = new HashSet<>();
+            for (final Integer p : positions) {
+              next.addAll(derives(grammar, right, input, p));
+            }
+            positions = next;
+          }
+          ends.addAll(positions);
+        }
+      }
+    }
+    return ends;
+  }
+}
@@ -0,0 +1,100 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecognizerTest {
+  private static final List<String> FRAGMENTS = Arrays.asList("Mon", "fre", "10:00", "25:00", "-", ",", " ", "Mo",
+      "1", "x", "lör", " ", "2026-12-24", "off");
+  private static final List<Locale> LOCALES = Arrays.asList(Locale.ENGLISH, new Locale("sv", "SE"));
+
+  @Test
+  void agreesWithTokenizingAndValidating() {
+    final Parser parser = Registry.parser(Grammars.defaultGrammar());
+    final Lexer lexer = Registry.lexer(LOCALES);
+    final Recognizer recognizer = Recognizer.compile(parser, lexer);
+    assertNotNull(recognizer);
+    assertAgree(parser, lexer, recognizer, FRAGMENTS, "", 5);
+  }
+
+  @Test
+  void agreesWhereADayNameBeginsALongerOne() {
+    // Finnish "ma" begins French "mar.", so "ma" is only taken once "mar." can no longer match.
+    final List<Locale> locales = Arrays.asList(Locale.ENGLISH, Locale.GERMAN, new Locale("fi", "FI"), Locale.FRENCH);
+    final Parser parser = Registry.parser(Grammars.defaultGrammar());
+    final Lexer lexer = Registry.lexer(locales);
+    final Recognizer recognizer = Recognizer.compile(parser, lexer);
+    assertNotNull(recognizer);
+    assertAgree(parser, lexer, recognizer, Arrays.asList("ma", "mar.", "r", ".", "-", " ", "10:00", ","), "", 5);
+  }
+
+  private static void assertAgree(final Parser parser, final Lexer lexer, final Recognizer recognizer,
+                                  final List<String> fragments, final String input, final int depth) {
+    assertEquals(expectedOffset(parser, lexer, input), recognizer.findInvalidOffset(input), input);
+    assertEquals(parser.validate(lexer.tokenize(input)).isValid(), recognizer.findInvalidOffset(input) < 0, input);
+    if (depth > 0) {
+      for (final String fragment : fragments) {
+        assertAgree(parser, lexer, recognizer, fragments, input + fragment, depth - 1);
+      }
+    }
+  }
+
+  /**
+   * The offset of the first token that the scanner and the parsing table reject, one token at a time.
+   */
+  private static int expectedOffset(final Parser parser, final Lexer lexer, final String input) {
+    final Lexer.Cursor cursor = lexer.cursor(input);
+    if (!cursor.next()) {
+      return -1;
+    }
+    final Parser.Run run = parser.start();
+    do {
+      if (cursor.type().isUnknown() || !run.accept(cursor.type())) {
+        return cursor.start();
+      }
+    } while (cursor.next());
+    return run.finish() ? -1 : input.length();
+  }
+
+  @Test
+  void findsTheFirstInvalidToken() {
+    final OpeningHours openingHours = new OpeningHours();
+    assertEquals(-1, openingHours.findInvalidOffset("Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00"));
+    assertEquals(-1, openingHours.findInvalidOffset(""));
+    assertEquals(-1, openingHours.findInvalidOffset("  "));
+    assertEquals(-1, openingHours.findInvalidOffset("Mon 25:00-26:00"));
+    assertEquals(4, openingHours.findInvalidOffset("Mon 1x:00-12:00"));
+    assertEquals(8, openingHours.findInvalidOffset("Mon-Fri Sat 10:00-12:00"));
+    assertEquals(16, openingHours.findInvalidOffset("Mon 10:00-12:00,"));
+    assertEquals(16, openingHours.findInvalidOffset("Mon 10:00-12:00 Monday"));
+    assertTrue(openingHours.isValid("Sat 10:00-14:00"));
+    assertFalse(openingHours.isValid("Sat 10:00"));
+  }
+
+  @Test
+  void fallsBackToTheParsingTableForGrammarsThatAreNotRegular() {
+    // As many Mondays as Tuesdays, which no finite automaton can count.
+    final List<Rule> grammar = new ArrayList<>();
+    grammar.add(new Rule(TokenType.OPENING_HOURS, asList(TokenType.SCHEDULE)));
+    grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.MONDAY, TokenType.SCHEDULE, TokenType.TUESDAY)));
+    grammar.add(new Rule(TokenType.SCHEDULE, asList(TokenType.EMPTY)));
+    assertNull(Recognizer.compile(new Parser(grammar), Registry.lexer(LOCALES)));
+
+    final OpeningHours openingHours = new OpeningHours(grammar, Locale.ENGLISH);
+    assertEquals(-1, openingHours.findInvalidOffset("Mon Mon Tue Tue"));
+    assertEquals(8, openingHours.findInvalidOffset("Mon Tue Tue"));
+    assertEquals(11, openingHours.findInvalidOffset("Mon Mon Tue"));
+    assertEquals(4, openingHours.findInvalidOffset("Mon Foo Tue"));
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScheduleAlgebraTest {
+  private static final OpeningHours OPENING_HOURS = new OpeningHours();
+  private static final List<String> INPUTS = Arrays.asList(
+      "",
+      "Mon-Fri 08:00-16:00",
+      "Mon-Sun 00:00-00:00",
+      "Sun 22:00-06:00",
+      "Mon 00:00-02:00, Sun 23:00-00:00",
+      "Fri 20:00-04:00, Sat 12:00-04:00",
+      "Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00",
+      "Tue 16:00-16:00, Wed 16:00-09:00");
+
+  private static WeeklySchedule schedule(final String input) {
+    return OPENING_HOURS.parse(input).getSchedule();
+  }
+
+  @Test
+  void operationsAgreeWithTheOpeningTimesOfTheOperands() {
+    for (final String a : INPUTS) {
+      for (final String b : INPUTS) {
+        final WeeklySchedule first = schedule(a);
+        final WeeklySchedule second = schedule(b);
+        final WeeklySchedule union = ScheduleAlgebra.union(first, second);
+        final WeeklySchedule intersection = ScheduleAlgebra.intersection(first, second);
+        final WeeklySchedule difference = ScheduleAlgebra.difference(first, second);
+        final WeeklySchedule complement = ScheduleAlgebra.complement(first);
+        for (int minute = 0; minute < WeeklySchedule.MINUTES_PER_WEEK; minute++) {
+          final boolean x = first.isOpenAt(minute);
+          final boolean y = second.isOpenAt(minute);
+          final String message = a + " / " + b + " at " + minute;
+          assertEquals(x || y, union.isOpenAt(minute), message);
+          assertEquals(x && y, intersection.isOpenAt(minute), message);
+          assertEquals(x && !y, difference.isOpenAt(minute), message);
+          assertEquals(!x, complement.isOpenAt(minute), message);
+        }
+      }
+    }
+  }
+
+  @Test
+  void operationsOnManySchedulesAgreeWithTheOpeningTimesOfTheOperands() {
+    final Random random = new Random(22);
+    final List<WeeklySchedule> schedules = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+      for (int j = random.nextInt(10); j > 0; j--) {
+        builder.addInterval(DayOfWeek.of(1 + random.nextInt(7)),
+            random.nextInt(WeeklySchedule.MINUTES_PER_DAY), random.nextInt(WeeklySchedule.MINUTES_PER_DAY));
+      }
+      schedules.add(builder.build());
+    }
+    final WeeklySchedule union = ScheduleAlgebra.union(schedules);
+    final WeeklySchedule intersection = ScheduleAlgebra.intersection(schedules.subList(0, 3));
+    for (int minute = 0; minute < WeeklySchedule.MINUTES_PER_WEEK; minute++) {
+      boolean any = false;
+      for (final WeeklySchedule schedule : schedules) {
+        any |= schedule.isOpenAt(minute);
+      }
+      boolean all = true;
+      for (final WeeklySchedule schedule : schedules.subList(0, 3)) {
+        all &= schedule.isOpenAt(minute);
+      }
+      assertEquals(any, union.isOpenAt(minute), "at " + minute);
+      assertEquals(all, intersection.isOpenAt(minute), "at " + minute);
+    }
+  }
+
+  @Test
+  void resultsAreNormalized() {
+    assertEquals(schedule("Mon 08:00-14:00"),
+        ScheduleAlgebra.union(schedule("Mon 08:00-12:00"), schedule("Mon 10:00-14:00")));
+    assertEquals(schedule("Fri 22:00-02:00"),
+        ScheduleAlgebra.union(schedule("Fri 22:00-00:00"), schedule("Sat 00:00-02:00")));
+    assertEquals(schedule("Sun 22:00-02:00"),
+        ScheduleAlgebra.union(schedule("Sun 22:00-00:00"), schedule("Mon 00:00-02:00")));
+    assertEquals(schedule("Mon-Sun 00:00-00:00"), ScheduleAlgebra.complement(schedule("")));
+    assertEquals(schedule("Mon 08:00-08:00, Tue 08:00-12:00"),
+        ScheduleAlgebra.union(schedule("Mon 08:00-00:00"), schedule("Tue 00:00-12:00")));
+    assertEquals(schedule("Mon 09:00-12:00 13:00-17:00"),
+        ScheduleAlgebra.difference(schedule("Mon 09:00-17:00"), schedule("Mon 12:00-13:00")));
+  }
+
+  @Test
+  void emptyOperandListsGiveTheNeutralElements() {
+    assertEquals(schedule(""), ScheduleAlgebra.union(Collections.emptyList()));
+    assertEquals(schedule("Mon-Sun 00:00-00:00"), ScheduleAlgebra.intersection(Collections.emptyList()));
+  }
+}
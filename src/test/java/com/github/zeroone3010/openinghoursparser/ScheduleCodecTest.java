@@ -0,0 +1,104 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleCodecTest {
+  private static final List<String> INPUTS = Arrays.asList("", "Mon 10:00-18:00", "Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00",
+      "Fri-Sat 22:00-02:00, Sun 00:00-23:59", "Mon-Sun 00:00-00:00", "Sun 18:00-03:00",
+      "Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00", "Fri 18:00-20:00 22:00-02:00, Sat 12:00-14:00",
+      "Mon-Fri 09:00-17:00, 2026-10-21 off, 2026-10-22 10:00-14:00 22:00-02:00", "2026-10-18 20:00-02:00",
+      "Sun 22:00-02:00, 2026-10-25-2026-10-26 off, 2027-01-01 10:00-11:00");
+
+  @Test
+  void decodesWhatItEncodes() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ByteBuffer buffer = ByteBuffer.allocate(1024);
+    final int[] offsets = new int[INPUTS.size()];
+    int offset = 7;
+    for (int i = 0; i < INPUTS.size(); i++) {
+      final WeeklySchedule schedule = openingHours.parse(INPUTS.get(i)).getSchedule();
+      offsets[i] = offset;
+      offset += ScheduleCodec.encode(schedule, buffer, offset);
+      assertEquals(ScheduleCodec.encodedLength(schedule), offset - offsets[i]);
+      assertEquals(schedule, ScheduleCodec.decode(ByteBuffer.wrap(ScheduleCodec.encode(schedule)), 0));
+    }
+    assertEquals(0, buffer.position());
+    for (int i = 0; i < INPUTS.size(); i++) {
+      assertEquals(openingHours.parse(INPUTS.get(i)).getSchedule(), ScheduleCodec.decode(buffer, offsets[i]));
+    }
+  }
+
+  @Test
+  void viewAnswersLikeTheSchedule() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ScheduleView view = new ScheduleView();
+    final LocalDateTime monday = LocalDateTime.of(2026, 10, 19, 0, 0);
+    for (final String input : INPUTS) {
+      final WeeklySchedule schedule = openingHours.parse(input).getSchedule();
+      view.wrap(ByteBuffer.wrap(ScheduleCodec.encode(schedule)), 0);
+      for (final DayOfWeek day : DayOfWeek.values()) {
+        assertEquals(schedule.get(day), view.get(day));
+        assertEquals(schedule.get(day).isClosed(), view.isClosed(day));
+      }
+      for (int minute = 0; minute < WeeklySchedule.MINUTES_PER_WEEK; minute++) {
+        assertEquals(schedule.isOpenAt(monday.plusMinutes(minute)), view.isOpenAt(monday.plusMinutes(minute)), input + " " + minute);
+      }
+      assertEquals(schedule, view.toSchedule());
+      assertEquals(schedule.fingerprint(), view.fingerprint(), input);
+    }
+  }
+
+  @Test
+  void writesDateExceptionsAfterTheDaysOfTheWeek() {
+    final byte[] bytes = ScheduleCodec.encode(new OpeningHours()
+        .parse("Mon 10:00-18:30, 2026-12-24 off, 2026-12-31 10:00-14:00").getSchedule());
+    assertEquals(8 + 3 + 4 + 2 * 6 + 3, bytes.length);
+    assertEquals(ScheduleCodec.VERSION, bytes[0]);
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    assertEquals(bytes.length, ScheduleCodec.encodedLength(buffer, 0));
+    assertEquals(2, buffer.getShort(11));
+    assertEquals(1, buffer.getShort(13));
+    assertEquals(LocalDate.of(2026, 12, 24).toEpochDay(), buffer.getInt(15));
+    assertEquals(LocalDate.of(2026, 12, 31).toEpochDay(), buffer.getInt(21));
+    final ScheduleView view = new ScheduleView().wrap(buffer, 0);
+    assertFalse(view.isOpenAt(LocalDateTime.of(2026, 12, 31, 9, 59)));
+    assertTrue(view.isOpenAt(LocalDateTime.of(2026, 12, 31, 10, 0)));
+    assertTrue(view.isOpenAt(LocalDateTime.of(2027, 1, 4, 10, 0)));
+  }
+
+  @Test
+  void usesAFewBytesPerInterval() {
+    final byte[] bytes = ScheduleCodec.encode(new OpeningHours().parse("Mon 10:00-18:30, Wed 08:00-12:00 13:00-17:00")
+        .getSchedule());
+    assertEquals(8 + 3 * 3, bytes.length);
+    assertEquals(1, bytes[0]); // the version without date exceptions
+    assertArrayEquals(new byte[]{1, 0, 2, 0, 0, 0, 0}, Arrays.copyOfRange(bytes, 1, 8));
+    assertEquals(600 * 2048 + 1110, (bytes[8] & 0xFF) << 16 | (bytes[9] & 0xFF) << 8 | bytes[10] & 0xFF);
+    final ScheduleView view = new ScheduleView().wrap(ByteBuffer.wrap(bytes), 0);
+    assertTrue(view.isClosed(DayOfWeek.TUESDAY));
+    assertEquals(2, view.getIntervalCount(DayOfWeek.WEDNESDAY));
+    assertEquals(13 * 60, view.getOpenMinute(DayOfWeek.WEDNESDAY, 1));
+    assertEquals(17 * 60, view.getCloseMinute(DayOfWeek.WEDNESDAY, 1));
+  }
+
+  @Test
+  void rejectsUnknownVersions() {
+    final byte[] bytes = new byte[22];
+    bytes[0] = 99;
+    assertThrows(IllegalArgumentException.class, () -> ScheduleCodec.decode(ByteBuffer.wrap(bytes), 0));
+    assertThrows(IllegalArgumentException.class, () -> new ScheduleView().wrap(ByteBuffer.wrap(bytes), 0));
+  }
+}
@@ -0,0 +1,102 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScheduleDiffTest {
+  private final OpeningHours openingHours = new OpeningHours();
+  private final List<String> changes = new ArrayList<>();
+  private final ScheduleDiff.Sink sink = (placeId, before, after) ->
+      changes.add(placeId + ":" + (before == null ? "added" : after == null ? "removed" : "changed"));
+  private Path directory;
+
+  @BeforeEach
+  void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("schedule-diff");
+  }
+
+  @AfterEach
+  void deleteDirectory() throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      for (final Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  private ScheduleStore store(final String name, final Map<Long, String> places) throws IOException {
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    places.forEach(builder::put);
+    final Path file = directory.resolve(name);
+    builder.writeTo(file);
+    return ScheduleStore.open(file);
+  }
+
+  private static Map<Long, String> before() {
+    final Map<Long, String> places = new HashMap<>();
+    places.put(1L, "Mon-Fri 08:00-16:00");
+    places.put(2L, "Sat 10:00-14:00");
+    places.put(4L, "Sun 12:00-18:00");
+    places.put(6L, "Mon-Tue 09:00-17:00");
+    return places;
+  }
+
+  private static Map<Long, String> after() {
+    final Map<Long, String> places = new HashMap<>();
+    places.put(1L, "Mon-Wed 08:00-16:00, Thu-Fri 08:00-16:00");
+    places.put(2L, "Sat 10:00-15:00");
+    places.put(3L, "Sun 12:00-18:00");
+    places.put(6L, "Tue 09:00-17:00, Mon 09:00-17:00");
+    places.put(7L, "Mon 09:00-17:00");
+    return places;
+  }
+
+  @Test
+  void reportsOnlyTheChangedPlacesOfTwoStores() throws IOException {
+    final long count = ScheduleDiff.diff(store("before", before()), store("after", after()), sink);
+    assertEquals(asList("2:changed", "3:added", "4:removed", "7:added"), changes);
+    assertEquals(4, count);
+  }
+
+  @Test
+  void reportsOnlyTheChangedPlacesOfTwoMaps() throws IOException {
+    final long count = ScheduleDiff.diff(compile(before()), compile(after()), sink);
+    changes.sort(null);
+    assertEquals(asList("2:changed", "3:added", "4:removed", "7:added"), changes);
+    assertEquals(4, count);
+  }
+
+  private Map<Long, WeeklySchedule> compile(final Map<Long, String> places) {
+    final Map<Long, WeeklySchedule> schedules = new HashMap<>();
+    places.forEach((id, input) -> schedules.put(id, openingHours.parse(input).getSchedule()));
+    return schedules;
+  }
+
+  @Test
+  void passesTheOldAndTheNewSchedule() throws IOException {
+    final Map<Long, String> after = new HashMap<>();
+    after.put(2L, "Sat 10:00-15:00");
+    ScheduleDiff.diff(store("before", before()), store("after", after), (placeId, before, schedule) -> {
+      if (placeId == 2) {
+        assertEquals(openingHours.parse("Sat 10:00-14:00").getSchedule(), before);
+        assertEquals(openingHours.parse("Sat 10:00-15:00").getSchedule(), schedule);
+      }
+      changes.add(String.valueOf(placeId));
+    });
+    assertEquals(asList("1", "2", "4", "6"), changes);
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleFormatterTest {
+  private final OpeningHours openingHours = new OpeningHours();
+  private final ScheduleFormatter formatter = new ScheduleFormatter();
+
+  private String normalize(final String input) {
+    return formatter.format(openingHours.parse(input).getSchedule());
+  }
+
+  @Test
+  void mergesConsecutiveDaysWithEqualOpeningHours() {
+    assertEquals("Mon-Tue 09:00-17:00", normalize("Mon 09:00-17:00, Tue 09:00-17:00"));
+    assertEquals("Mon-Tue 09:00-17:00", normalize("Mon-Tue 09:00-17:00"));
+    assertEquals("Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00", normalize("Sat-Sun 10:00-18:00, Mon-Fri 08:00-20:00"));
+    assertEquals("Mon 09:00-17:00, Wed 09:00-17:00", normalize("Wed 09:00-17:00, Mon 09:00-17:00"));
+    assertEquals("Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00",
+        normalize("Mon-Fri 13:00-17:00 08:00-12:00, Sat 10:00-14:00"));
+    assertEquals("Fri-Sat 22:00-02:00, Sun 00:00-00:00", normalize("Fri-Sat 22:00-02:00, Sun 00:00-00:00"));
+    assertEquals("Mon-Sun 00:00-00:00", normalize("Mon-Sun 00:00-00:00"));
+    assertEquals("", normalize(""));
+  }
+
+  @Test
+  void writesDayNamesOfTheLocale() {
+    final OpeningHours swedish = new OpeningHours(Grammars.defaultGrammar(), new Locale("sv", "SE"));
+    final ScheduleFormatter formatter = new ScheduleFormatter(new Locale("sv", "SE"));
+    final WeeklySchedule schedule = openingHours.parse("Mon-Fri 08:00-16:00, Sun 12:00-16:00").getSchedule();
+    final String formatted = formatter.format(schedule);
+    assertTrue(formatted.startsWith("mån-fre 08:00-16:00"), formatted);
+    assertEquals(schedule, swedish.parse(formatted).getSchedule());
+  }
+
+  @Test
+  void writesDateExceptionsAfterTheDaysOfTheWeek() {
+    final String input = "Mon-Fri 09:00-17:00, 2026-12-24-2026-12-26 off, 2026-12-31 10:00-14:00, 2027-01-01 off";
+    assertEquals(input, formatter.format(openingHours.parse(input).getSchedule()));
+    assertEquals("2026-12-24 off, 2026-12-25 10:00-12:00, 2026-12-26 off", formatter.format(openingHours
+        .parse("2026-12-26 off, 2026-12-25 10:00-12:00, 2026-12-24 off").getSchedule()));
+    assertEquals("2026-12-31-2027-01-01 10:00-12:00", formatter.format(openingHours
+        .parse("2026-12-31 10:00-12:00, 2027-01-01 10:00-12:00").getSchedule()));
+  }
+
+  @Test
+  void writesTheFirstAndLastYearsThatCanBeParsed() {
+    final WeeklySchedule schedule = WeeklySchedule.builder()
+        .addException(LocalDate.of(0, 1, 1), DailySchedule.closed())
+        .addException(LocalDate.of(9999, 12, 31), DailySchedule.closed())
+        .build();
+    final String formatted = formatter.format(schedule);
+    assertEquals("0000-01-01 off, 9999-12-31 off", formatted);
+    assertEquals(schedule, openingHours.parse(formatted).getSchedule());
+  }
+
+  @Test
+  void parsingTheOutputGivesAnEqualSchedule() {
+    final Random random = new Random(24);
+    for (int i = 0; i < 1000; i++) {
+      final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+      for (int j = random.nextInt(4); j > 0; j--) {
+        builder.addInterval(DayOfWeek.of(1 + random.nextInt(7)),
+            random.nextInt(WeeklySchedule.MINUTES_PER_DAY), random.nextInt(WeeklySchedule.MINUTES_PER_DAY));
+      }
+      // Equal consecutive days, to be written as a range.
+      final DailySchedule day = new DailySchedule(random.nextInt(24 * 60), random.nextInt(24 * 60));
+      final int from = 1 + random.nextInt(7);
+      for (int j = from; j <= Math.min(7, from + random.nextInt(4)); j++) {
+        builder.add(DayOfWeek.of(j), day);
+      }
+      for (int j = random.nextInt(3); j > 0; j--) {
+        final LocalDate date = LocalDate.of(2026, 12, 20 + random.nextInt(12));
+        builder.addException(date, random.nextBoolean() ? DailySchedule.closed() : day);
+      }
+      final WeeklySchedule schedule = builder.build();
+      final String formatted = formatter.format(schedule);
+      final ParseResult result = openingHours.parse(formatted);
+      assertTrue(result.isValid(), formatted);
+      assertEquals(schedule, result.getSchedule(), formatted);
+      assertEquals(formatted, formatter.format(result.getSchedule()));
+    }
+  }
+
+  @Test
+  void appendsToTheGivenTarget() throws IOException {
+    final WeeklySchedule schedule = openingHours.parse("Sat 10:00-14:00").getSchedule();
+    final StringBuilder builder = new StringBuilder("Hours: ");
+    assertEquals("Hours: Sat 10:00-14:00", formatter.formatTo(schedule, builder).toString());
+    final StringWriter writer = new StringWriter();
+    formatter.formatTo(schedule, writer);
+    assertEquals("Sat 10:00-14:00", writer.toString());
+  }
+}
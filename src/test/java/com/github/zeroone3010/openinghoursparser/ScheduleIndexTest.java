@@ -0,0 +1,89 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleIndexTest {
+  private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 10, 19, 0, 0);
+
+  @Test
+  void answersLikeEachScheduleOnItsOwn() {
+    final Random random = new Random(7);
+    final OpeningHours openingHours = new OpeningHours();
+    final List<WeeklySchedule> schedules = new ArrayList<>();
+    final ScheduleIndex index = new ScheduleIndex(15);
+    for (int id = 0; id < 300; id++) {
+      final String input = String.format("Mon-Fri %02d:%02d-%02d:%02d, Sat-Sun %02d:00-%02d:30",
+          random.nextInt(24), 15 * random.nextInt(4), random.nextInt(24), 15 * random.nextInt(4),
+          random.nextInt(24), random.nextInt(24));
+      final WeeklySchedule schedule = openingHours.parse(input).getSchedule();
+      schedules.add(schedule);
+      index.put(id, schedule);
+    }
+    for (int minute = 0; minute < WeeklySchedule.MINUTES_PER_WEEK; minute += 15) {
+      final LocalDateTime time = MONDAY.plusMinutes(minute);
+      final BitSet open = index.openAt(time);
+      for (int id = 0; id < schedules.size(); id++) {
+        assertEquals(schedules.get(id).isOpenAt(time), open.get(id), id + " at " + time);
+      }
+    }
+  }
+
+  @Test
+  void findsPlacesThatAreOpenForAWholeWindow() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ScheduleIndex index = new ScheduleIndex(5);
+    index.put(0, openingHours.parse("Mon-Fri 09:00-17:00").getSchedule());
+    index.put(1, openingHours.parse("Mon-Fri 12:00-20:00").getSchedule());
+    index.put(2, openingHours.parse("Sun 20:00-02:00").getSchedule());
+
+    assertEquals(bits(0), index.openThroughout(MONDAY.plusHours(9), MONDAY.plusHours(12)));
+    assertEquals(bits(0, 1), index.openThroughout(MONDAY.plusHours(12), MONDAY.plusHours(17)));
+    assertEquals(bits(1), index.openThroughout(MONDAY.plusHours(12), MONDAY.plusHours(17).plusMinutes(1)));
+    assertEquals(bits(2), index.openThroughout(MONDAY.minusHours(1), MONDAY.plusHours(2)));
+    assertEquals(bits(), index.openThroughout(MONDAY, MONDAY.plusDays(8)));
+    assertThrows(IllegalArgumentException.class, () -> index.openThroughout(MONDAY, MONDAY));
+  }
+
+  @Test
+  void placesCanBeReplacedAndRemoved() {
+    final OpeningHours openingHours = new OpeningHours();
+    final ScheduleIndex index = new ScheduleIndex(60);
+    index.put(1000, openingHours.parse("Mon 09:00-17:00").getSchedule());
+    assertTrue(index.contains(1000));
+    assertEquals(bits(1000), index.openAt(DayOfWeek.MONDAY, LocalTime.NOON));
+
+    index.put(1000, openingHours.parse("Tue 09:00-17:00").getSchedule());
+    assertEquals(bits(), index.openAt(DayOfWeek.MONDAY, LocalTime.NOON));
+    assertEquals(bits(1000), index.openAt(DayOfWeek.TUESDAY, LocalTime.NOON));
+
+    index.remove(1000);
+    assertFalse(index.contains(1000));
+    assertEquals(bits(), index.openAt(DayOfWeek.TUESDAY, LocalTime.NOON));
+  }
+
+  @Test
+  void granularityMustDivideADay() {
+    assertThrows(IllegalArgumentException.class, () -> new ScheduleIndex(7));
+  }
+
+  private static BitSet bits(final int... ids) {
+    final BitSet bits = new BitSet();
+    for (final int id : ids) {
+      bits.set(id);
+    }
+    return bits;
+  }
+}
@@ -0,0 +1,130 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleIngesterTest {
+  private static final List<String> INPUTS = Arrays.asList("Mon 10:00-18:00", "Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00",
+      "", "Fri-Sat 22:00-02:00", "Foo 10:00-18:00", "Mon 25:00-26:00", "Mon-Sun 00:00-00:00");
+
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("schedule-ingester");
+    file = directory.resolve("places.csv");
+  }
+
+  @AfterEach
+  void deleteDirectory() throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      for (final Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Test
+  void parsesTheColumnOfEveryLineInOrder() throws IOException {
+    final OpeningHours openingHours = new OpeningHours();
+    final StringBuilder csv = new StringBuilder("id,name,opening hours\r\n");
+    final List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final String input = INPUTS.get(i % INPUTS.size());
+      expected.add(input);
+      csv.append(i * 7).append(",\"Place \"\"").append(i).append("\"\"\",\"").append(input).append("\"\r\n");
+      if (i % 100 == 0) {
+        csv.append("\r\n");
+      }
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    final ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      for (final int chunkSize : new int[]{1, 37, 4096}) {
+        final List<ParseResult> results = new ArrayList<>();
+        final ScheduleIngester.Progress progress = new ScheduleIngester(openingHours, 2).withIdColumn(0).withHeader()
+            .withChunkSize(chunkSize).withExecutor(executor, 3)
+            .ingest(file, (record, id, result) -> {
+              assertEquals(results.size(), record);
+              assertEquals(record * 7, id);
+              results.add(result);
+            });
+        assertEquals(expected.size(), results.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertEquals(String.valueOf(openingHours.parse(expected.get(i))), String.valueOf(results.get(i)), expected.get(i));
+        }
+        assertEquals(1000, progress.getRecords());
+        assertEquals(1000 / INPUTS.size() * 2 + 2, progress.getFailures());
+        assertEquals(Files.size(file), progress.getBytesRead());
+        assertEquals(Files.size(file), progress.getTotalBytes());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void decodesLocalizedDayNames() throws IOException {
+    final OpeningHours openingHours = new OpeningHours(Grammars.defaultGrammar(), new Locale("sv", "SE"));
+    Files.write(file, "mån-fre 09:00-17:00\tA\nlör 10:00-14:00\tB".getBytes(StandardCharsets.UTF_8));
+    final List<ParseResult> results = new ArrayList<>();
+    new ScheduleIngester(openingHours, 0).withDelimiter('\t')
+        .ingest(file, (record, id, result) -> results.add(result));
+    assertEquals(2, results.size());
+    assertEquals(openingHours.parse("mån-fre 09:00-17:00").getSchedule(), results.get(0).getSchedule());
+    assertEquals(openingHours.parse("lör 10:00-14:00").getSchedule(), results.get(1).getSchedule());
+
+    Files.write(file, "mån-fre 09:00-17:00\tA\n".getBytes(StandardCharsets.ISO_8859_1));
+    results.clear();
+    new ScheduleIngester(openingHours, 0).withDelimiter('\t').withCharset(StandardCharsets.ISO_8859_1)
+        .ingest(file, (record, id, result) -> results.add(result));
+    assertEquals(openingHours.parse("mån-fre 09:00-17:00").getSchedule(), results.get(0).getSchedule());
+  }
+
+  @Test
+  void reportsMissingColumnsAndIds() throws IOException {
+    Files.write(file, "1;Mon 10:00-18:00\nx;Mon 10:00-18:00\n3\n".getBytes(StandardCharsets.UTF_8));
+    final List<ParseResult> results = new ArrayList<>();
+    new ScheduleIngester(new OpeningHours(), 1).withIdColumn(0).withDelimiter(';')
+        .ingest(file, (record, id, result) -> results.add(result));
+    assertTrue(results.get(0).isValid());
+    assertEquals(new ValidationResult(false, "No id in column 0"), results.get(1).getValidationResult());
+    assertEquals(new ValidationResult(false, "No column 1"), results.get(2).getValidationResult());
+  }
+
+  @Test
+  void fillsAScheduleStore() throws IOException {
+    final OpeningHours openingHours = new OpeningHours();
+    Files.write(file, "10\tMon 10:00-18:00\n20\tFoo\n30\tSat 10:00-14:00\n".getBytes(StandardCharsets.UTF_8));
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    new ScheduleIngester(openingHours, 1).withIdColumn(0).withDelimiter('\t')
+        .ingest(file, ScheduleIngester.Sink.into(builder));
+    final Path storeFile = directory.resolve("store.bin");
+    builder.writeTo(storeFile);
+
+    final ScheduleStore store = ScheduleStore.open(storeFile);
+    assertEquals(2, store.size());
+    assertEquals(openingHours.parse("Sat 10:00-14:00").getSchedule(), store.get(30));
+    assertFalse(store.contains(20));
+  }
+}
@@ -0,0 +1,72 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleInternerTest {
+  @Test
+  void equalInputsShareOneSchedule() {
+    final OpeningHours openingHours = new OpeningHours().withInterner(ScheduleInterner.weak());
+    final WeeklySchedule first = openingHours.parse("Mon-Fri 09:00-17:00").getSchedule();
+    final WeeklySchedule second = openingHours.parse("Mon 09:00-17:00, Tue-Fri 09:00-17:00").getSchedule();
+    final WeeklySchedule other = openingHours.parse("Mon-Fri 09:00-18:00").getSchedule();
+    assertSame(first, second);
+    assertNotSame(first, other);
+    assertSame(first, openingHours.compile(openingHours.tokenize("Mon-Fri 09:00-17:00")));
+  }
+
+  @Test
+  void anInternerAfterACacheGetsACacheOfItsOwn() {
+    final OpeningHours cached = new OpeningHours().withCache(10);
+    final WeeklySchedule uninterned = cached.parse("Mon-Fri 09:00-17:00").getSchedule();
+    final ScheduleInterner interner = ScheduleInterner.weak();
+    final WeeklySchedule canonical = interner.intern(new OpeningHours().parse("Mon-Fri 09:00-17:00").getSchedule());
+    final OpeningHours interning = cached.withInterner(interner);
+    assertNotSame(cached.getCache(), interning.getCache());
+    assertEquals(10, interning.getCache().getMaximumSize());
+    assertSame(canonical, interning.parse("Mon-Fri 09:00-17:00").getSchedule());
+    assertSame(uninterned, cached.parse("Mon-Fri 09:00-17:00").getSchedule());
+  }
+
+  @Test
+  void equalityFollowsTheSchedule() {
+    final OpeningHours openingHours = new OpeningHours();
+    final WeeklySchedule first = openingHours.parse("Mon-Tue 09:00-17:00").getSchedule();
+    final WeeklySchedule second = openingHours.parse("Mon 09:00-17:00, Tue 09:00-17:00").getSchedule();
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertTrue(!first.equals(openingHours.parse("Mon-Tue 09:00-17:01").getSchedule()));
+    assertTrue(!first.equals(openingHours.parse("Mon 09:00-17:00, Wed 09:00-17:00").getSchedule()));
+  }
+
+  @Test
+  void internsDailySchedules() {
+    final ScheduleInterner interner = ScheduleInterner.bounded(100);
+    final DailySchedule canonical = interner.intern(new DailySchedule(LocalTime.of(9, 0), LocalTime.of(17, 0)));
+    assertSame(canonical, interner.intern(new DailySchedule(LocalTime.of(9, 0), LocalTime.of(17, 0))));
+    final WeeklySchedule schedule = new OpeningHours().parse("Sat 09:00-17:00").getSchedule();
+    assertSame(canonical, interner.intern(schedule.get(DayOfWeek.SATURDAY)));
+    assertSame(DailySchedule.closed(), interner.intern(schedule.get(DayOfWeek.SUNDAY)));
+  }
+
+  @Test
+  void boundedInternerKeepsAtMostItsMaximumSize() {
+    final ScheduleInterner interner = ScheduleInterner.bounded(32);
+    final OpeningHours openingHours = new OpeningHours().withInterner(interner);
+    for (int hour = 0; hour < 24; hour++) {
+      for (int minute = 0; minute < 60; minute += 5) {
+        openingHours.parse(String.format("Mon %02d:%02d-23:59", hour, minute));
+      }
+    }
+    assertTrue(interner.size() <= 32);
+    assertThrows(IllegalArgumentException.class, () -> ScheduleInterner.bounded(1));
+  }
+}
@@ -0,0 +1,176 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleStoreTest {
+  private static final String[] INPUTS = {"", "Mon 10:00-18:00", "Mon-Fri 08:00-20:00, Sat-Sun 10:00-18:00",
+      "Fri-Sat 22:00-02:00, Sun 00:00-23:59", "Mon-Sun 00:00-00:00", "Sun 18:00-03:00",
+      "Mon-Fri 08:00-12:00 13:00-17:00, Sat 10:00-14:00", "Fri 18:00-20:00 22:00-02:00"};
+
+  private final OpeningHours openingHours = new OpeningHours();
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("schedule-store");
+    file = directory.resolve("schedules.bin");
+  }
+
+  @AfterEach
+  void deleteDirectory() throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      for (final Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  @Test
+  void findsWhatWasWritten() throws IOException {
+    final Random random = new Random(42);
+    final long[] ids = new long[5000];
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = random.nextLong();
+      builder.put(ids[i], INPUTS[i % INPUTS.length]);
+    }
+    builder.writeTo(file);
+
+    final ScheduleStore store = ScheduleStore.open(file);
+    assertEquals(ids.length, store.size());
+    final LocalDateTime saturday = LocalDateTime.of(2026, 10, 24, 1, 30);
+    for (int i = 0; i < ids.length; i++) {
+      final WeeklySchedule schedule = openingHours.parse(INPUTS[i % INPUTS.length]).getSchedule();
+      assertTrue(store.contains(ids[i]));
+      assertEquals(schedule, store.get(ids[i]));
+      assertEquals(schedule.get(DayOfWeek.FRIDAY), store.get(ids[i], DayOfWeek.FRIDAY));
+      assertEquals(schedule.isOpenAt(saturday), store.isOpenAt(ids[i], saturday));
+    }
+  }
+
+  @Test
+  void writesSchedulesLargerThanTheWriteBuffer() throws IOException {
+    final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+    final DailySchedule shifts = new OpeningHours().parse("2026-01-01 06:00-07:00 08:00-09:00 10:00-11:00 "
+        + "12:00-13:00 14:00-15:00 16:00-17:00").getSchedule().get(LocalDate.of(2026, 1, 1));
+    for (int i = 0; i < 4000; i++) {
+      builder.addException(LocalDate.of(2026, 1, 1).plusDays(i), shifts);
+    }
+    final WeeklySchedule large = builder.build();
+    assertTrue(ScheduleCodec.encodedLength(large) > 64 * 1024);
+    final WeeklySchedule small = openingHours.parse("Mon 10:00-18:00").getSchedule();
+    ScheduleStore.builder(openingHours).put(1, small).put(2, large).put(3, small).writeTo(file);
+
+    final ScheduleStore store = ScheduleStore.open(file);
+    assertEquals(small, store.get(1));
+    assertEquals(large, store.get(2));
+    assertEquals(small, store.get(3));
+    assertEquals(large.fingerprint(), store.fingerprint(2));
+    assertThrows(NoSuchElementException.class, () -> store.fingerprint(4));
+  }
+
+  @Test
+  void lastScheduleOfAPlaceWinsAndInvalidOnesAreLeftOut() throws IOException {
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    builder.put(3, "Mon 10:00-18:00");
+    builder.put(1, "Tue 10:00-18:00");
+    builder.put(3, "Wed 10:00-18:00");
+    assertFalse(builder.put(3, "Thu 10:00").isValid());
+    assertFalse(builder.put(2, "Foo").isValid());
+    builder.writeTo(file);
+
+    final ScheduleStore store = ScheduleStore.open(file);
+    assertEquals(2, store.size());
+    assertEquals(openingHours.parse("Wed 10:00-18:00").getSchedule(), store.get(3));
+    assertFalse(store.contains(2));
+    assertNull(store.get(2));
+    assertNull(store.get(2, DayOfWeek.MONDAY));
+    assertFalse(store.isOpenAt(2, LocalDateTime.of(2026, 10, 19, 12, 0)));
+  }
+
+  @Test
+  void swapsToANewFile() throws IOException {
+    final ScheduleStore.Builder first = ScheduleStore.builder(openingHours);
+    first.put(1, "Mon 10:00-18:00");
+    first.writeTo(file);
+    final ScheduleStore store = ScheduleStore.open(file);
+    final Path next = directory.resolve("next.bin");
+    final ScheduleStore.Builder second = ScheduleStore.builder(openingHours);
+    second.put(1, "Tue 10:00-18:00");
+    second.put(2, "Sun 10:00-18:00");
+    second.writeTo(next);
+
+    store.swap(next);
+    assertEquals(2, store.size());
+    assertEquals(openingHours.parse("Tue 10:00-18:00").getSchedule(), store.get(1));
+  }
+
+  @Test
+  void sharesEqualSchedules() throws IOException {
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    for (int i = 0; i < 100; i++) {
+      builder.put(i, "Mon-Fri 08:00-12:00 13:00-17:00");
+    }
+    builder.writeTo(file);
+    assertEquals(ScheduleStore.HEADER_LENGTH + 100 * ScheduleStore.RECORD_LENGTH + 8 + 3 * 10, Files.size(file));
+    assertEquals(openingHours.parse("Mon-Fri 08:00-12:00 13:00-17:00").getSchedule(), ScheduleStore.open(file).get(99));
+  }
+
+  @Test
+  void rejectsFilesThatAreNotStores() throws IOException {
+    Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+    assertThrows(IOException.class, () -> ScheduleStore.open(file));
+  }
+
+  @Test
+  void rejectsStoresWhoseRecordsPointOutsideOfTheFile() throws IOException {
+    final ScheduleStore.Builder builder = ScheduleStore.builder(openingHours);
+    builder.put(1, "Mon 10:00-18:00");
+    builder.put(2, "Tue 10:00-18:00");
+    builder.writeTo(file);
+    final byte[] bytes = Files.readAllBytes(file);
+    final int recordsEnd = ScheduleStore.HEADER_LENGTH + 2 * ScheduleStore.RECORD_LENGTH;
+
+    Files.write(file, Arrays.copyOf(bytes, recordsEnd));
+    assertThrows(IOException.class, () -> ScheduleStore.open(file));
+
+    final Path valid = directory.resolve("valid.bin");
+    Files.write(valid, bytes);
+    final ScheduleStore store = ScheduleStore.open(valid);
+    final byte[] corrupt = bytes.clone();
+    ByteBuffer.wrap(corrupt).putInt(ScheduleStore.HEADER_LENGTH + ScheduleStore.RECORD_LENGTH + 8, 4);
+    Files.write(file, corrupt);
+    assertThrows(IOException.class, () -> store.swap(file));
+    assertEquals(openingHours.parse("Tue 10:00-18:00").getSchedule(), store.get(2));
+  }
+
+  @Test
+  void writesAnEmptyStore() throws IOException {
+    ScheduleStore.builder(openingHours).writeTo(file);
+    final ScheduleStore store = ScheduleStore.open(file);
+    assertEquals(0, store.size());
+    assertFalse(store.contains(0));
+  }
+}
@@ -0,0 +1,195 @@
+package com.github.zeroone3010.openinghoursparser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeeklyScheduleTest {
+  private static final long FINGERPRINT_OF_EMPTY = -3651037224887793006L;
+  private static final long FINGERPRINT_OF_WEEKDAYS = -2953017356734927832L;
+
+  @Test
+  void everyDayIsClosedByDefault() {
+    final WeeklySchedule schedule = WeeklySchedule.builder().build();
+    for (final DayOfWeek day : DayOfWeek.values()) {
+      assertSame(DailySchedule.closed(), schedule.get(day));
+      assertTrue(schedule.get(day).isClosed());
+      assertNull(schedule.get(day).getOpen());
+    }
+  }
+
+  @Test
+  void keepsTheScheduleOfEachDay() {
+    final WeeklySchedule schedule = WeeklySchedule.builder()
+        .add(DayOfWeek.TUESDAY, new DailySchedule(LocalTime.of(8, 15), LocalTime.of(16, 45)))
+        .add(DayOfWeek.SUNDAY, new DailySchedule(LocalTime.of(0, 0), LocalTime.of(23, 59)))
+        .add(DayOfWeek.FRIDAY, new DailySchedule(LocalTime.of(10, 0), LocalTime.of(12, 0)))
+        .add(DayOfWeek.FRIDAY, DailySchedule.closed())
+        .build();
+    assertEquals(DailySchedule.closed(), schedule.get(DayOfWeek.MONDAY));
+    assertEquals(LocalTime.of(8, 15), schedule.get(DayOfWeek.TUESDAY).getOpen());
+    assertEquals(LocalTime.of(16, 45), schedule.get(DayOfWeek.TUESDAY).getClose());
+    assertEquals(DailySchedule.closed(), schedule.get(DayOfWeek.FRIDAY));
+    assertEquals(new DailySchedule(LocalTime.MIDNIGHT, LocalTime.of(23, 59)), schedule.get(DayOfWeek.SUNDAY));
+  }
+
+  @Test
+  void keepsSeveralIntervalsPerDayInOrder() {
+    final DailySchedule split = new DailySchedule(LocalTime.of(13, 0), LocalTime.of(17, 0))
+        .with(LocalTime.of(8, 0), LocalTime.of(12, 0))
+        .with(LocalTime.of(13, 0), LocalTime.of(17, 0));
+    assertEquals(2, split.getIntervalCount());
+    assertEquals(LocalTime.of(8, 0), split.getOpen());
+    assertEquals(LocalTime.of(12, 0), split.getClose(0));
+    assertEquals(LocalTime.of(13, 0), split.getOpen(1));
+    assertEquals("Open 08:00-12:00, 13:00-17:00", split.toString());
+
+    final WeeklySchedule schedule = WeeklySchedule.builder().add(DayOfWeek.MONDAY, split).build();
+    assertEquals(split, schedule.get(DayOfWeek.MONDAY));
+    assertTrue(schedule.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(11, 59)));
+    assertFalse(schedule.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(12, 30)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(13, 0)));
+    assertEquals(LocalDateTime.of(2026, 10, 19, 13, 0), schedule.nextOpening(LocalDateTime.of(2026, 10, 19, 12, 0)));
+  }
+
+  @Test
+  void holdsALimitedNumberOfIntervals() {
+    final WeeklySchedule.Builder builder = WeeklySchedule.builder();
+    for (int i = 0; i < WeeklySchedule.MAX_INTERVALS; i++) {
+      builder.addInterval(DayOfWeek.of(i % 7 + 1), i, i + 1);
+    }
+    assertThrows(IllegalArgumentException.class, () -> builder.addInterval(DayOfWeek.MONDAY, 1000, 1001));
+    assertEquals(WeeklySchedule.MAX_INTERVALS, builder.build().getOpenIntervals().length / 2);
+  }
+
+  @Test
+  void timesMustBeWholeMinutes() {
+    assertThrows(IllegalArgumentException.class, () -> new DailySchedule(LocalTime.of(8, 0, 30), LocalTime.NOON));
+  }
+
+  @Test
+  void isOpenDuringOpeningHoursOnly() {
+    final WeeklySchedule schedule = new OpeningHours().parse("Mon-Fri 09:00-17:00, Sat 22:00-02:00").getSchedule();
+    assertFalse(schedule.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(8, 59)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.MONDAY, LocalTime.of(9, 0)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.FRIDAY, LocalTime.of(16, 59)));
+    assertFalse(schedule.isOpenAt(DayOfWeek.FRIDAY, LocalTime.of(17, 0)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.SATURDAY, LocalTime.of(23, 0)));
+    assertTrue(schedule.isOpenAt(DayOfWeek.SUNDAY, LocalTime.of(1, 59)));
+    assertFalse(schedule.isOpenAt(DayOfWeek.SUNDAY, LocalTime.of(2, 0)));
+    assertTrue(schedule.isOpenAt(LocalDateTime.of(2026, 10, 19, 16, 59, 59)));
+  }
+
+  @Test
+  void findsTheNextOpeningAndClosing() {
+    final WeeklySchedule schedule = new OpeningHours().parse("Mon-Fri 09:00-17:00, Sun 20:00-01:00").getSchedule();
+    final LocalDateTime monday = LocalDateTime.of(2026, 10, 19, 0, 0);
+    assertEquals(monday.plusHours(1), schedule.nextClosing(monday));
+    assertEquals(monday.plusHours(9), schedule.nextOpening(monday));
+    assertEquals(monday.plusHours(9), schedule.nextOpening(monday.plusHours(9)));
+    assertEquals(monday.plusDays(1).plusHours(9), schedule.nextOpening(monday.plusHours(9).plusSeconds(1)));
+    assertEquals(monday.plusHours(17), schedule.nextClosing(monday.plusHours(12)));
+    assertEquals(monday.plusDays(6).plusHours(20), schedule.nextOpening(monday.plusDays(4).plusHours(18)));
+    assertEquals(monday.plusDays(7).plusHours(1), schedule.nextClosing(monday.plusDays(6).plusHours(21)));
+  }
+
+  @Test
+  void alwaysOpenOrAlwaysClosedHasNoNextOpeningOrClosing() {
+    final LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 0);
+    final WeeklySchedule closed = WeeklySchedule.builder().build();
+    assertFalse(closed.isOpenAt(now));
+    assertNull(closed.nextOpening(now));
+    assertNull(closed.nextClosing(now));
+
+    final WeeklySchedule open = new OpeningHours().parse("Mon-Sun 00:00-00:00").getSchedule();
+    assertTrue(open.isOpenAt(now));
+    assertNull(open.nextOpening(now));
+    assertNull(open.nextClosing(now));
+  }
+
+  @Test
+  void openingHoursAcrossTheEndOfTheWeekAreOneInterval() {
+    final WeeklySchedule schedule = new OpeningHours().parse("Mon 00:00-12:00, Sun 12:00-00:00").getSchedule();
+    final LocalDateTime sunday = LocalDateTime.of(2026, 10, 18, 0, 0);
+    assertEquals(sunday.plusHours(12), schedule.nextOpening(sunday));
+    assertEquals(sunday.plusHours(36), schedule.nextClosing(sunday.plusHours(13)));
+    assertEquals(sunday.plusDays(7).plusHours(12), schedule.nextOpening(sunday.plusHours(13)));
+  }
+
+  @Test
+  void equalSchedulesHaveEqualFingerprints() {
+    final OpeningHours openingHours = new OpeningHours();
+    final WeeklySchedule schedule = openingHours.parse("Mon-Tue 08:00-12:00 13:00-17:00").getSchedule();
+    final WeeklySchedule same = openingHours.parse("Mon 13:00-17:00 08:00-12:00, Tue 08:00-12:00 13:00-17:00")
+        .getSchedule();
+    assertEquals(schedule, same);
+    assertEquals(schedule.fingerprint(), same.fingerprint());
+    assertNotEquals(schedule.fingerprint(),
+        openingHours.parse("Mon-Tue 08:00-12:00 13:00-17:01").getSchedule().fingerprint());
+    assertNotEquals(schedule.fingerprint(),
+        openingHours.parse("Tue-Wed 08:00-12:00 13:00-17:00").getSchedule().fingerprint());
+    assertNotEquals(WeeklySchedule.builder().build().fingerprint(),
+        openingHours.parse("Sun 00:00-00:00").getSchedule().fingerprint());
+  }
+
+  @Test
+  void dateExceptionsTakePartInEqualityAndFingerprints() {
+    final LocalDate christmas = LocalDate.of(2026, 12, 25);
+    final DailySchedule morning = new DailySchedule(LocalTime.of(8, 0), LocalTime.of(12, 0));
+    final WeeklySchedule schedule = WeeklySchedule.builder().add(DayOfWeek.FRIDAY, morning)
+        .addException(christmas, DailySchedule.closed()).build();
+    final WeeklySchedule same = WeeklySchedule.builder().addException(christmas, DailySchedule.closed())
+        .add(DayOfWeek.FRIDAY, morning).build();
+    final WeeklySchedule weekly = WeeklySchedule.builder().add(DayOfWeek.FRIDAY, morning).build();
+    assertEquals(schedule, same);
+    assertEquals(schedule.hashCode(), same.hashCode());
+    assertEquals(schedule.fingerprint(), same.fingerprint());
+    assertNotEquals(schedule, weekly);
+    assertNotEquals(schedule.fingerprint(), weekly.fingerprint());
+    assertNotEquals(schedule.fingerprint(), WeeklySchedule.builder().add(DayOfWeek.FRIDAY, morning)
+        .addException(christmas.plusDays(1), DailySchedule.closed()).build().fingerprint());
+
+    assertEquals(DailySchedule.closed(), schedule.get(christmas));
+    assertEquals(morning, schedule.get(christmas.plusWeeks(1)));
+    assertEquals(Collections.singletonList(christmas), schedule.getExceptionDates());
+    assertFalse(schedule.isOpenAt(christmas.atTime(9, 0)));
+    assertEquals(christmas.plusWeeks(1).atTime(8, 0), schedule.nextOpening(christmas.atStartOfDay()));
+  }
+
+  @Test
+  void dateExceptionsAreLimitedToYearsWithFourDigits() {
+    final WeeklySchedule.Builder builder = WeeklySchedule.builder()
+        .addException(LocalDate.of(0, 1, 1), DailySchedule.closed())
+        .addException(LocalDate.of(9999, 12, 31), DailySchedule.closed());
+    assertEquals(2, builder.build().getExceptionDates().size());
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.addException(LocalDate.of(10000, 1, 1), DailySchedule.closed()));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.addException(LocalDate.of(-1, 12, 31), DailySchedule.closed()));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.addException(LocalDate.MAX, DailySchedule.closed()));
+    assertThrows(IllegalArgumentException.class,
+        () -> builder.addExceptionInterval((int) LocalDate.of(10000, 1, 1).toEpochDay(), 600, 720));
+    assertEquals(2, builder.build().getExceptionDates().size());
+  }
+
+  @Test
+  void fingerprintsDoNotChangeBetweenVersions() {
+    // Stored fingerprints must still match after an upgrade.
+    assertEquals(FINGERPRINT_OF_EMPTY, WeeklySchedule.builder().build().fingerprint());
+    assertEquals(FINGERPRINT_OF_WEEKDAYS,
+        new OpeningHours().parse("Mon-Fri 08:00-16:00").getSchedule().fingerprint());
+  }
+}